@@ -0,0 +1,180 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class BlockingServerEngine implements ServerEngine {
+
+    private final int port;
+    private final ExecutionMode mode;
+    private final ClientHandler handler;
+
+    private volatile boolean running = true;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    public BlockingServerEngine(int port, ExecutionMode mode, ClientHandler handler) {
+        this.port = port;
+        this.mode = mode;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() throws IOException {
+        executor = mode.newPerTaskExecutor("client");
+        serverSocket = new ServerSocket(port);
+        System.out.println("🌐 Server aktif di port " + port + " (1 " + mode + " thread per client)");
+
+        try {
+            while (running) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                executor.execute(() -> serve(socket));
+            }
+        } catch (IOException e) {
+            if (running)
+                throw e;
+        } finally {
+            stop();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null)
+                serverSocket.close();
+        } catch (IOException e) {
+        }
+        if (executor != null)
+            executor.shutdownNow();
+    }
+
+    private void serve(Socket socket) {
+        StreamConnection conn;
+        try {
+            conn = new StreamConnection(socket);
+        } catch (IOException e) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+            }
+            return;
+        }
+
+        try {
+            executor.execute(conn::drainOutbound);
+            handler.onConnect(conn);
+            while (conn.isOpen()) {
+                if (conn.binaryFraming) {
+                    byte[] body = Protocol.readFrame(conn.in, Protocol.MAX_INBOUND_FRAME);
+                    handler.onBinaryMessage(conn, body);
+                } else {
+                    handler.onMessage(conn, conn.in.readUTF());
+                }
+            }
+        } catch (EOFException e) {
+        } catch (IOException e) {
+        } finally {
+            conn.close();
+        }
+    }
+
+    private class StreamConnection implements ClientConnection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final String remoteAddress;
+        private final OutboundQueue outbound = OutboundQueue.withDefaults();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile Object attachment;
+        private volatile boolean binaryFraming;
+
+        StreamConnection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.remoteAddress = String.valueOf(socket.getRemoteSocketAddress());
+        }
+
+        @Override
+        public void send(byte[] frame, String coalesceKey, byte[] supersedingFrame) {
+            if (closed.get())
+                return;
+            if (!outbound.offer(frame, coalesceKey, supersedingFrame)) {
+                OutboundQueue.recordEviction(remoteAddress);
+                close();
+            }
+        }
+
+        @Override
+        public int getQueuedFrames() {
+            return outbound.size();
+        }
+
+        @Override
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public void setAttachment(Object attachment) {
+            this.attachment = attachment;
+        }
+
+        void drainOutbound() {
+            try {
+                byte[] frame;
+                while ((frame = outbound.take()) != null) {
+                    out.write(frame);
+                    if (outbound.size() == 0)
+                        out.flush();
+                }
+            } catch (IOException e) {
+                close();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void setBinaryFraming(boolean binary) {
+            this.binaryFraming = binary;
+        }
+
+        @Override
+        public boolean isBinaryFraming() {
+            return binaryFraming;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed.get();
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return remoteAddress;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true))
+                return;
+            outbound.close();
+            try {
+                socket.close();
+            } catch (IOException e) {
+            }
+            handler.onDisconnect(this);
+        }
+    }
+}
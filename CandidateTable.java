@@ -0,0 +1,228 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class CandidateTable {
+
+    private static final int MAX_STRIPES = Integer.highestOneBit(Math.max(1,
+            Integer.getInteger("evoting.tally.stripes", Math.min(8, Runtime.getRuntime().availableProcessors()))));
+    private static final int MAX_CELLS = Integer.getInteger("evoting.tally.maxCells", 1 << 14);
+    private static final long SEALED = Long.MIN_VALUE / 2;
+    static final long SEALED_READ = Long.MIN_VALUE;
+    private static final int LONGS_PER_LINE = 8;
+
+    final String[] names;
+    private final String[] images;
+    private final int[] slots;
+    private final int stripeMask;
+    private final int stride;
+    private final AtomicLongArray cells;
+    private final Set<String> nameView = new NameView();
+    private final Map<String, String> imageView = new ImageView();
+
+    CandidateTable(String[] names, String[] images) {
+        int n = names.length;
+        this.names = new String[n];
+        this.images = new String[n];
+        this.slots = new int[Math.max(2, Integer.highestOneBit(Math.max(1, n)) << 2)];
+        for (int i = 0; i < n; i++) {
+            this.names[i] = names[i].intern();
+            this.images[i] = images[i] == null || images[i].isEmpty() ? "" : images[i];
+            int s = home(this.names[i]);
+            while (slots[s] != 0) {
+                s = (s + 1) & (slots.length - 1);
+            }
+            slots[s] = i + 1;
+        }
+
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, MAX_CELLS / Math.max(1, n))));
+        this.stripeMask = stripes - 1;
+        this.stride = (n + LONGS_PER_LINE - 1) / LONGS_PER_LINE * LONGS_PER_LINE;
+        this.cells = new AtomicLongArray(stripes * stride);
+    }
+
+    private CandidateTable(CandidateTable base, String[] images) {
+        this.names = base.names;
+        this.images = images;
+        this.slots = base.slots;
+        this.stripeMask = base.stripeMask;
+        this.stride = base.stride;
+        this.cells = base.cells;
+    }
+
+    CandidateTable withImage(int i, String path) {
+        String[] copy = images.clone();
+        copy[i] = path == null || path.isEmpty() ? "" : path;
+        return new CandidateTable(this, copy);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String name(int i) {
+        return names[i];
+    }
+
+    String image(int i) {
+        return images[i];
+    }
+
+    int indexOf(String name) {
+        if (name == null)
+            return -1;
+        int s = home(name);
+        for (int slot; (slot = slots[s]) != 0; s = (s + 1) & (slots.length - 1)) {
+            String candidate = names[slot - 1];
+            if (candidate == name || candidate.equals(name))
+                return slot - 1;
+        }
+        return -1;
+    }
+
+    boolean add(int i, long delta) {
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        return cells.getAndAdd(stripe * stride + i, delta) > SEALED / 2;
+    }
+
+    long count(int i) {
+        long sum = 0;
+        for (int cell = i; cell < cells.length(); cell += stride) {
+            long value = cells.get(cell);
+            if (value <= SEALED / 2)
+                return SEALED_READ;
+            sum += value;
+        }
+        return sum;
+    }
+
+    long[] counts() {
+        long[] values = new long[names.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = count(i);
+            if (values[i] == SEALED_READ)
+                return null;
+        }
+        return values;
+    }
+
+    void set(int i, long value) {
+        for (int cell = i; cell < cells.length(); cell += stride) {
+            cells.set(cell, cell == i ? value : 0);
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < names.length; i++) {
+            set(i, 0);
+        }
+    }
+
+    void drainInto(CandidateTable target, int[] movedTo) {
+        for (int i = 0; i < names.length; i++) {
+            long moved = 0;
+            for (int cell = i; cell < cells.length(); cell += stride) {
+                moved += cells.getAndSet(cell, SEALED);
+            }
+            if (movedTo[i] >= 0)
+                target.cells.getAndAdd(movedTo[i], moved);
+        }
+    }
+
+    Set<String> nameSet() {
+        return nameView;
+    }
+
+    Map<String, String> imageMap() {
+        return imageView;
+    }
+
+    private int home(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (slots.length - 1);
+    }
+
+    private abstract class Cursor<T> implements Iterator<T> {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < names.length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= names.length)
+                throw new NoSuchElementException();
+            return at(next++);
+        }
+
+        abstract T at(int i);
+    }
+
+    private final class NameView extends AbstractSet<String> {
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && indexOf((String) o) >= 0;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Cursor<String>() {
+                @Override
+                String at(int i) {
+                    return names[i];
+                }
+            };
+        }
+    }
+
+    private final class ImageView extends AbstractMap<String, String> {
+        private final Set<Map.Entry<String, String>> entries = new AbstractSet<Map.Entry<String, String>>() {
+            @Override
+            public int size() {
+                return names.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Cursor<Map.Entry<String, String>>() {
+                    @Override
+                    Map.Entry<String, String> at(int i) {
+                        return new AbstractMap.SimpleImmutableEntry<>(names[i], images[i]);
+                    }
+                };
+            }
+        };
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public String get(Object key) {
+            int i = key instanceof String ? indexOf((String) key) : -1;
+            return i < 0 ? null : images[i];
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+public interface ClientConnection {
+
+    void send(byte[] frame, String coalesceKey, byte[] supersedingFrame);
+
+    default void send(byte[] frame, String coalesceKey) {
+        send(frame, coalesceKey, frame);
+    }
+
+    default void send(byte[] frame) {
+        send(frame, null, frame);
+    }
+
+    int getQueuedFrames();
+
+    void setBinaryFraming(boolean binary);
+
+    boolean isBinaryFraming();
+
+    Object getAttachment();
+
+    void setAttachment(Object attachment);
+
+    void close();
+
+    boolean isOpen();
+
+    String getRemoteAddress();
+}
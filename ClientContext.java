@@ -0,0 +1,47 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ClientContext {
+
+    private final AtomicBoolean greeted = new AtomicBoolean(false);
+    private volatile boolean deltaStats;
+    private volatile boolean binary;
+    private volatile int protocolVersion = 1;
+
+    public boolean wantsDeltaStats() {
+        return deltaStats || binary;
+    }
+
+    public void enableDeltaStats() {
+        this.deltaStats = true;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void useBinaryProtocol(int version) {
+        this.binary = true;
+        this.protocolVersion = version;
+    }
+
+    public boolean usesImageRefs() {
+        return binary && protocolVersion >= Protocol.MIN_IMAGE_REF_VERSION;
+    }
+
+    public boolean sendsHistoryIds() {
+        return binary && protocolVersion >= Protocol.MIN_HISTORY_ID_VERSION;
+    }
+
+    public boolean markGreeted() {
+        return greeted.compareAndSet(false, true);
+    }
+
+    public static ClientContext of(ClientConnection conn) {
+        Object att = conn.getAttachment();
+        if (att instanceof ClientContext)
+            return (ClientContext) att;
+        ClientContext ctx = new ClientContext();
+        conn.setAttachment(ctx);
+        return ctx;
+    }
+}
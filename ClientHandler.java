@@ -0,0 +1,10 @@
+public interface ClientHandler {
+
+    void onConnect(ClientConnection connection);
+
+    void onMessage(ClientConnection connection, String message);
+
+    void onBinaryMessage(ClientConnection connection, byte[] body);
+
+    void onDisconnect(ClientConnection connection);
+}
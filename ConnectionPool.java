@@ -0,0 +1,320 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConnectionPool {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private int total;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private volatile long maxWaitNanos;
+
+    private final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-pool-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle, long idleTimeoutMs,
+            long borrowTimeoutMs) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxSize));
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+
+        long period = Math.max(1000, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static ConnectionPool withDefaults(String url, String user, String password) {
+        return new ConnectionPool(url, user, password,
+                Integer.getInteger("evoting.db.poolSize", 4),
+                Integer.getInteger("evoting.db.minIdle", 1),
+                Long.getLong("evoting.db.idleTimeoutMs", 60_000L),
+                Long.getLong("evoting.db.borrowTimeoutMs", 5_000L));
+    }
+
+    public PooledConnection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (idle.isEmpty() && total >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                        throw new SQLException("Pool koneksi habis (" + maxSize + " aktif)");
+                    try {
+                        returned.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Menunggu koneksi terputus", e);
+                    }
+                }
+                if (!idle.isEmpty()) {
+                    candidate = idle.pollFirst();
+                } else {
+                    total++;
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = new PooledConnection(DriverManager.getConnection(url, user, password));
+                    created.increment();
+                } catch (SQLException e) {
+                    release();
+                    throw e;
+                }
+            } else if (!isUsable(candidate)) {
+                destroy(candidate);
+                continue;
+            }
+
+            candidate.borrowed = true;
+            recordWait(System.nanoTime() - start);
+            return candidate;
+        }
+    }
+
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return total - idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public double getAverageWaitMs() {
+        long n = borrows.sum();
+        return n == 0 ? 0 : waitNanos.sum() / (double) n / 1_000_000.0;
+    }
+
+    public double getMaxWaitMs() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        lock.lock();
+        try {
+            for (PooledConnection pc : idle) {
+                pc.closePhysically();
+            }
+            total -= idle.size();
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            return pc.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrows.increment();
+        waitNanos.add(nanos);
+        if (nanos > maxWaitNanos)
+            maxWaitNanos = nanos;
+    }
+
+    private void giveBack(PooledConnection pc) {
+        boolean healthy;
+        try {
+            if (!pc.connection.getAutoCommit()) {
+                pc.connection.rollback();
+                pc.connection.setAutoCommit(true);
+            }
+            healthy = !pc.connection.isClosed();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            destroy(pc);
+            return;
+        }
+
+        pc.lastUsed = System.currentTimeMillis();
+        lock.lock();
+        try {
+            idle.addFirst(pc);
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        pc.closePhysically();
+        discarded.increment();
+        release();
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            total--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        ArrayDeque<PooledConnection> expired = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > minIdle) {
+                PooledConnection pc = it.next();
+                if (pc.lastUsed >= cutoff)
+                    break;
+                it.remove();
+                total--;
+                expired.add(pc);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : expired) {
+            pc.closePhysically();
+            discarded.increment();
+        }
+    }
+
+    public final class PooledConnection implements AutoCloseable {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(16,
+                0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= STATEMENT_CACHE_SIZE)
+                    return false;
+                try {
+                    eldest.getValue().close();
+                } catch (SQLException e) {
+                }
+                return true;
+            }
+        };
+        private long lastUsed = System.currentTimeMillis();
+        private boolean borrowed;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection connection() {
+            return connection;
+        }
+
+        public PreparedStatement prepare(String sql) throws SQLException {
+            return prepare(sql, Statement.NO_GENERATED_KEYS);
+        }
+
+        public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            String key = autoGeneratedKeys + ":" + sql;
+            PreparedStatement ps = statements.get(key);
+            if (ps == null || ps.isClosed()) {
+                ps = connection.prepareStatement(sql, autoGeneratedKeys);
+                statements.put(key, ps);
+            } else {
+                ps.clearParameters();
+                ps.clearBatch();
+            }
+            return ps;
+        }
+
+        @Override
+        public void close() {
+            if (!borrowed)
+                return;
+            borrowed = false;
+            giveBack(this);
+        }
+
+        private void closePhysically() {
+            for (PreparedStatement ps : statements.values()) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+            }
+        }
+    }
+}
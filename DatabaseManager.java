@@ -2,86 +2,119 @@ import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class DatabaseManager {
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/evoting_history_db";
-    private static final String USER = "root";
-    private static final String PASS = "";
+    private static final String DB_URL = System.getProperty("evoting.db.url",
+            "jdbc:mysql://localhost:3306/evoting_history_db?rewriteBatchedStatements=true");
+    private static final String USER = System.getProperty("evoting.db.user", "root");
+    private static final String PASS = System.getProperty("evoting.db.password", "");
+
+    private static final ConnectionPool POOL = ConnectionPool.withDefaults(DB_URL, USER, PASS);
+
+    private static volatile boolean candidateUpsert;
+
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
 
     public static void initDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL, USER, PASS)) {
-            if (conn != null) {
-                Statement stmt = conn.createStatement();
-
-                String sqlSessions = "CREATE TABLE IF NOT EXISTS sessions ("
-                        + "id INT PRIMARY KEY AUTO_INCREMENT,"
-                        + "title VARCHAR(255) NOT NULL,"
-                        + "timestamp BIGINT NOT NULL,"
-                        + "total_votes INT"
-                        + ");";
-                stmt.execute(sqlSessions);
-
-                String sqlCandidates = "CREATE TABLE IF NOT EXISTS candidates ("
-                        + "id INT PRIMARY KEY AUTO_INCREMENT,"
-                        + "session_id INT,"
-                        + "name VARCHAR(255) NOT NULL,"
-                        + "image_path VARCHAR(255),"
-                        + "vote_count INT,"
-                        + "FOREIGN KEY(session_id) REFERENCES sessions(id) ON DELETE CASCADE"
-                        + ");";
-                stmt.execute(sqlCandidates);
-
-                System.out.println("✅ Database MySQL terhubung & tabel siap.");
-            }
+        try (ConnectionPool.PooledConnection pooled = POOL.borrow();
+                Statement stmt = pooled.connection().createStatement()) {
+            String sqlSessions = "CREATE TABLE IF NOT EXISTS sessions ("
+                    + "id INT PRIMARY KEY AUTO_INCREMENT,"
+                    + "title VARCHAR(255) NOT NULL,"
+                    + "timestamp BIGINT NOT NULL,"
+                    + "total_votes INT"
+                    + ");";
+            stmt.execute(sqlSessions);
+
+            String sqlCandidates = "CREATE TABLE IF NOT EXISTS candidates ("
+                    + "id INT PRIMARY KEY AUTO_INCREMENT,"
+                    + "session_id INT,"
+                    + "name VARCHAR(255) NOT NULL,"
+                    + "image_path VARCHAR(255),"
+                    + "vote_count INT,"
+                    + "FOREIGN KEY(session_id) REFERENCES sessions(id) ON DELETE CASCADE"
+                    + ");";
+            stmt.execute(sqlCandidates);
+
+            ensureIndex(pooled.connection(), "candidates", "session_id", "idx_candidates_session");
+            ensureIndex(pooled.connection(), "sessions", "timestamp", "idx_sessions_timestamp");
+            ensureColumn(pooled.connection(), "sessions", "is_live", "TINYINT NOT NULL DEFAULT 0");
+            boolean binaryNames = ensureBinaryCollation(pooled.connection(), "candidates", "name",
+                    "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL");
+            boolean uniqueNames = ensureUniqueIndex(pooled.connection(), "candidates", "uq_candidates_session_name",
+                    "session_id, name");
+            candidateUpsert = binaryNames && uniqueNames;
+            if (!candidateUpsert)
+                System.err.println("⚠️ Flush tally live memakai DELETE + INSERT penuh karena index unik kandidat "
+                        + "tidak tersedia.");
+
+            System.out.println("✅ Database MySQL terhubung & tabel siap.");
         } catch (SQLException e) {
             System.err.println("❌ Gagal inisialisasi database. Pastikan XAMPP/MySQL aktif!");
             e.printStackTrace();
         }
     }
 
-    public static void saveSession(VotingSession session) {
-        String sqlSession = "INSERT INTO sessions(title, timestamp, total_votes) VALUES(?,?,?)";
+    public static boolean saveSession(VotingSession session) {
+        String sqlSession = "INSERT INTO sessions(title, timestamp, total_votes, is_live) VALUES(?,?,?,0)";
+        String sqlFinishLive = "UPDATE sessions SET total_votes = ?, is_live = 0 WHERE id = ?";
+        String sqlClearCandidates = "DELETE FROM candidates WHERE session_id = ?";
         String sqlCandidate = "INSERT INTO candidates(session_id, name, image_path, vote_count) VALUES(?,?,?,?)";
 
+        ConnectionPool.PooledConnection pooled = null;
         Connection conn = null;
         try {
-            conn = DriverManager.getConnection(DB_URL, USER, PASS);
+            pooled = POOL.borrow();
+            conn = pooled.connection();
             conn.setAutoCommit(false);
 
-            PreparedStatement pstmtSession = conn.prepareStatement(sqlSession, Statement.RETURN_GENERATED_KEYS);
-            pstmtSession.setString(1, session.getTitle());
-            pstmtSession.setLong(2, session.getStartTime());
-            pstmtSession.setInt(3, session.getTotalVotes());
-            pstmtSession.executeUpdate();
-
-            int sessionId = -1;
-            ResultSet rs = pstmtSession.getGeneratedKeys();
-            if (rs.next()) {
-                sessionId = rs.getInt(1);
+            int sessionId = (int) session.getDbId();
+            if (sessionId >= 0) {
+                PreparedStatement pstmtFinish = pooled.prepare(sqlFinishLive);
+                pstmtFinish.setInt(1, session.getTotalVotes());
+                pstmtFinish.setInt(2, sessionId);
+                pstmtFinish.executeUpdate();
+
+                PreparedStatement pstmtClear = pooled.prepare(sqlClearCandidates);
+                pstmtClear.setInt(1, sessionId);
+                pstmtClear.executeUpdate();
+            } else {
+                PreparedStatement pstmtSession = pooled.prepare(sqlSession, Statement.RETURN_GENERATED_KEYS);
+                pstmtSession.setString(1, session.getTitle());
+                pstmtSession.setLong(2, session.getStartTime());
+                pstmtSession.setInt(3, session.getTotalVotes());
+                pstmtSession.executeUpdate();
+
+                try (ResultSet rs = pstmtSession.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        sessionId = rs.getInt(1);
+                    }
+                }
             }
 
-            if (sessionId != -1) {
-                PreparedStatement pstmtCand = conn.prepareStatement(sqlCandidate);
-                Map<String, Integer> votes = session.getAllData();
-                Map<String, String> images = session.getAllImages();
+            if (sessionId >= 0) {
+                PreparedStatement pstmtCand = pooled.prepare(sqlCandidate);
+                VotingSession.Tally tally = session.getTally();
+                VotingSession.Snapshot snap = tally.getSnapshot();
 
-                for (String name : votes.keySet()) {
+                for (int i = 0; i < tally.size(); i++) {
                     pstmtCand.setInt(1, sessionId);
-                    pstmtCand.setString(2, name);
-
-                    String path = (images != null) ? images.getOrDefault(name, "") : "";
-                    pstmtCand.setString(3, path);
-
-                    pstmtCand.setInt(4, votes.get(name));
+                    pstmtCand.setString(2, tally.getName(i));
+                    pstmtCand.setString(3, snap.getImage(i));
+                    pstmtCand.setLong(4, tally.getCount(i));
                     pstmtCand.addBatch();
                 }
                 pstmtCand.executeBatch();
             }
 
             conn.commit();
+            if (sessionId >= 0)
+                session.setDbId(sessionId);
             System.out.println("✅ Sesi '" + session.getTitle() + "' tersimpan.");
+            return sessionId >= 0;
 
         } catch (SQLException e) {
             System.err.println("❌ Gagal simpan sesi: " + e.getMessage());
@@ -92,68 +125,291 @@ public class DatabaseManager {
                     ex.printStackTrace();
                 }
             }
+            return false;
         } finally {
-            try {
-                if (conn != null)
-                    conn.close();
-            } catch (SQLException e) {
+            if (pooled != null)
+                pooled.close();
+        }
+    }
+
+    public static boolean flushLiveTally(VotingSession session, VotingSession.Tally tally,
+            VotingSession.Tally previous, int batchSize) {
+        String sqlInsertLive = "INSERT INTO sessions(title, timestamp, total_votes, is_live) VALUES(?,?,?,1)";
+        String sqlTotal = "UPDATE sessions SET total_votes = ? WHERE id = ?";
+        String sqlClearCandidates = "DELETE FROM candidates WHERE session_id = ?";
+        String sqlUpsert = "INSERT INTO candidates(session_id, name, image_path, vote_count) VALUES(?,?,?,?) "
+                + "ON DUPLICATE KEY UPDATE vote_count = VALUES(vote_count)";
+
+        long total = 0;
+        for (int i = 0; i < tally.size(); i++) {
+            total += tally.getCount(i);
+        }
+
+        ConnectionPool.PooledConnection pooled = null;
+        Connection conn = null;
+        try {
+            pooled = POOL.borrow();
+            conn = pooled.connection();
+            conn.setAutoCommit(false);
+
+            int sessionId = (int) session.getDbId();
+            if (sessionId < 0) {
+                PreparedStatement pstmtSession = pooled.prepare(sqlInsertLive, Statement.RETURN_GENERATED_KEYS);
+                pstmtSession.setString(1, session.getTitle());
+                pstmtSession.setLong(2, session.getStartTime());
+                pstmtSession.setLong(3, total);
+                pstmtSession.executeUpdate();
+                try (ResultSet rs = pstmtSession.getGeneratedKeys()) {
+                    if (!rs.next())
+                        throw new SQLException("ID sesi tidak dikembalikan");
+                    sessionId = rs.getInt(1);
+                }
+            } else {
+                PreparedStatement pstmtTotal = pooled.prepare(sqlTotal);
+                pstmtTotal.setLong(1, total);
+                pstmtTotal.setInt(2, sessionId);
+                pstmtTotal.executeUpdate();
+            }
+
+            boolean full = !candidateUpsert || previous == null || !tally.hasSameCandidates(previous);
+            VotingSession.Snapshot snap = tally.getSnapshot();
+            if (full) {
+                PreparedStatement pstmtClear = pooled.prepare(sqlClearCandidates);
+                pstmtClear.setInt(1, sessionId);
+                pstmtClear.executeUpdate();
+            }
+
+            PreparedStatement pstmtUpsert = pooled.prepare(sqlUpsert);
+            int batched = 0;
+            for (int i = 0; i < tally.size(); i++) {
+                if (!full && tally.getCount(i) == previous.getCount(i))
+                    continue;
+                pstmtUpsert.setInt(1, sessionId);
+                pstmtUpsert.setString(2, tally.getName(i));
+                pstmtUpsert.setString(3, full ? snap.getImage(i) : "");
+                pstmtUpsert.setLong(4, tally.getCount(i));
+                pstmtUpsert.addBatch();
+                if (++batched == batchSize) {
+                    pstmtUpsert.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0)
+                pstmtUpsert.executeBatch();
+
+            conn.commit();
+            session.setDbId(sessionId);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("⚠️ Gagal flush tally '" + session.getTitle() + "': " + e.getMessage());
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                }
             }
+            return false;
+        } finally {
+            if (pooled != null)
+                pooled.close();
         }
     }
 
-    public static List<VotingSession> getAllHistory() {
-        List<VotingSession> historyList = new ArrayList<>();
+    public static List<VotingSession> getLiveSessions() {
+        List<VotingSession> live = new ArrayList<>();
 
-        String sqlSelectSessions = "SELECT * FROM sessions ORDER BY timestamp DESC";
+        String sql = "SELECT s.id, s.title, s.timestamp, c.name, c.image_path, c.vote_count "
+                + "FROM sessions s LEFT JOIN candidates c ON c.session_id = s.id "
+                + "WHERE s.is_live = 1 ORDER BY s.timestamp DESC, s.id DESC, c.id ASC";
 
-        String sqlSelectCandidates = "SELECT * FROM candidates WHERE session_id = ? ORDER BY id ASC";
+        try (ConnectionPool.PooledConnection pooled = POOL.borrow();
+                ResultSet rs = pooled.prepare(sql).executeQuery()) {
+            readSessions(rs, live, false);
+        } catch (SQLException e) {
+            System.err.println("⚠️ Gagal load sesi live: " + e.getMessage());
+        }
+        return live;
+    }
 
-        try (Connection conn = DriverManager.getConnection(DB_URL, USER, PASS);
-                Statement stmt = conn.createStatement();
-                ResultSet rsSessions = stmt.executeQuery(sqlSelectSessions)) {
+    public static HistoryPage getHistoryPage(long beforeTimestamp, long beforeId, int limit) {
+        List<VotingSession> sessions = new ArrayList<>();
+
+        String sql = "SELECT s.id, s.title, s.timestamp, c.name, c.image_path, c.vote_count "
+                + "FROM (SELECT id, title, timestamp FROM sessions "
+                + "WHERE is_live = 0 AND (timestamp < ? OR (timestamp = ? AND id < ?)) "
+                + "ORDER BY timestamp DESC, id DESC LIMIT ?) s "
+                + "LEFT JOIN candidates c ON c.session_id = s.id "
+                + "ORDER BY s.timestamp DESC, s.id DESC, c.id ASC";
+
+        try (ConnectionPool.PooledConnection pooled = POOL.borrow()) {
+            PreparedStatement pstmt = pooled.prepare(sql);
+            pstmt.setLong(1, beforeTimestamp);
+            pstmt.setLong(2, beforeTimestamp);
+            pstmt.setLong(3, beforeId);
+            pstmt.setInt(4, limit + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                readSessions(rs, sessions, true);
+            }
+        } catch (SQLException e) {
+            System.err.println("⚠️ Gagal load halaman history: " + e.getMessage());
+            return new HistoryPage(sessions, false, beforeTimestamp, beforeId);
+        }
 
-            while (rsSessions.next()) {
-                int id = rsSessions.getInt("id");
-                String title = rsSessions.getString("title");
-                long timestamp = rsSessions.getLong("timestamp");
+        boolean hasMore = sessions.size() > limit;
+        if (hasMore)
+            sessions = new ArrayList<>(sessions.subList(0, limit));
+        if (sessions.isEmpty())
+            return new HistoryPage(sessions, false, beforeTimestamp, beforeId);
 
-                PreparedStatement pstmtCand = conn.prepareStatement(sqlSelectCandidates);
-                pstmtCand.setInt(1, id);
-                ResultSet rsCand = pstmtCand.executeQuery();
+        VotingSession last = sessions.get(sessions.size() - 1);
+        return new HistoryPage(sessions, hasMore, last.getStartTime(), last.getDbId());
+    }
+
+    public static int countSessions() {
+        try (ConnectionPool.PooledConnection pooled = POOL.borrow();
+                ResultSet rs = pooled.prepare("SELECT COUNT(*) FROM sessions WHERE is_live = 0").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            System.err.println("⚠️ Gagal menghitung sesi: " + e.getMessage());
+            return 0;
+        }
+    }
 
-                List<String> candidateNames = new ArrayList<>();
-                List<String> candidateImages = new ArrayList<>();
-                List<Integer> candidateVotes = new ArrayList<>();
+    private static void readSessions(ResultSet rs, List<VotingSession> target, boolean archived)
+            throws SQLException {
+        int currentId = -1;
+        String title = null;
+        long timestamp = 0;
+        List<String> candidateNames = new ArrayList<>();
+        List<String> candidateImages = new ArrayList<>();
+        List<Integer> candidateVotes = new ArrayList<>();
+
+        while (rs.next()) {
+            int id = rs.getInt(1);
+            if (id != currentId) {
+                if (currentId != -1)
+                    target.add(toSession(currentId, title, timestamp, candidateNames, candidateImages,
+                            candidateVotes, archived));
+                currentId = id;
+                title = rs.getString(2);
+                timestamp = rs.getLong(3);
+                candidateNames.clear();
+                candidateImages.clear();
+                candidateVotes.clear();
+            }
 
-                while (rsCand.next()) {
-                    String name = rsCand.getString("name");
-                    String imgPath = rsCand.getString("image_path");
-                    int votes = rsCand.getInt("vote_count");
+            String name = rs.getString(4);
+            if (name != null) {
+                String imgPath = rs.getString(5);
+                candidateNames.add(name);
+                candidateImages.add(imgPath == null ? "" : imgPath);
+                candidateVotes.add(rs.getInt(6));
+            }
+        }
 
-                    candidateNames.add(name);
-                    candidateImages.add(imgPath == null ? "" : imgPath);
-                    candidateVotes.add(votes);
-                }
+        if (currentId != -1)
+            target.add(toSession(currentId, title, timestamp, candidateNames, candidateImages, candidateVotes,
+                    archived));
+    }
 
-                String[] arrNames = candidateNames.toArray(new String[0]);
-                String[] arrImages = candidateImages.toArray(new String[0]);
+    private static VotingSession toSession(int id, String title, long timestamp, List<String> candidateNames,
+            List<String> candidateImages, List<Integer> candidateVotes, boolean archived) {
+        String[] arrNames = candidateNames.toArray(new String[0]);
+        String[] arrImages = candidateImages.toArray(new String[0]);
 
-                VotingSession session = new VotingSession(title, arrNames, arrImages);
+        VotingSession session = new VotingSession(title, arrNames, arrImages);
 
-                session.forceEndSession();
-                session.overwriteStartTime(timestamp);
+        if (archived)
+            session.forceEndSession();
+        session.overwriteStartTime(timestamp);
+        session.setDbId(id);
 
-                for (int i = 0; i < arrNames.length; i++) {
-                    session.setVoteCountManual(arrNames[i], candidateVotes.get(i));
-                }
+        for (int i = 0; i < arrNames.length; i++) {
+            session.setVoteCountManual(arrNames[i], candidateVotes.get(i));
+        }
+        return session;
+    }
 
-                historyList.add(session);
+    private static void ensureColumn(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next())
+                return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            System.out.println("✅ Kolom " + table + "." + column + " ditambahkan.");
+        }
+    }
+
+    private static boolean ensureUniqueIndex(Connection conn, String table, String indexName, String columns)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, true, false)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME")))
+                    return true;
             }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE UNIQUE INDEX " + indexName + " ON " + table + "(" + columns + ")");
+            System.out.println("✅ Index unik " + indexName + " dibuat.");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("⚠️ Index unik " + indexName + " gagal dibuat: " + e.getMessage());
+            return false;
+        }
+    }
 
+    private static boolean ensureBinaryCollation(Connection conn, String table, String column, String definition) {
+        String sql = "SELECT COLLATION_NAME FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, column);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next())
+                    return true;
+                String collation = rs.getString(1);
+                if (collation == null || collation.endsWith("_bin"))
+                    return true;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " MODIFY " + column + " " + definition);
+                System.out.println("✅ Kolom " + table + "." + column + " memakai collation biner.");
+            }
+            return true;
         } catch (SQLException e) {
-            System.err.println("⚠️ Gagal load history: " + e.getMessage());
+            System.err.println("⚠️ Collation biner " + table + "." + column + " gagal dipasang: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void ensureIndex(Connection conn, String table, String column, String indexName)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (rs.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(rs.getString("COLUMN_NAME")))
+                    return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + indexName + " ON " + table + "(" + column + ")");
+            System.out.println("✅ Index " + indexName + " dibuat.");
         }
+    }
 
-        return historyList;
+    public static final class HistoryPage {
+        final List<VotingSession> sessions;
+        final boolean hasMore;
+        final long nextTimestamp;
+        final long nextId;
+
+        HistoryPage(List<VotingSession> sessions, boolean hasMore, long nextTimestamp, long nextId) {
+            this.sessions = sessions;
+            this.hasMore = hasMore;
+            this.nextTimestamp = nextTimestamp;
+            this.nextId = nextId;
+        }
     }
 }
\ No newline at end of file
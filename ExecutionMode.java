@@ -0,0 +1,82 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public static ExecutionMode parse(String value) {
+        if (value != null && value.trim().equalsIgnoreCase("virtual"))
+            return VIRTUAL;
+        return PLATFORM;
+    }
+
+    public static boolean isVirtualAvailable() {
+        return virtualFactory() != null;
+    }
+
+    public ExecutorService newPerTaskExecutor(String namePrefix) {
+        ExecutorService virtual = virtualExecutor();
+        if (virtual != null)
+            return virtual;
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                platformThreads(namePrefix));
+    }
+
+    public ExecutorService newBoundedExecutor(String namePrefix, int maxPlatformThreads) {
+        ExecutorService virtual = virtualExecutor();
+        if (virtual != null)
+            return virtual;
+        int size = Math.max(1, maxPlatformThreads);
+        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(size * 4),
+                platformThreads(namePrefix), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private ExecutorService virtualExecutor() {
+        if (this != VIRTUAL)
+            return null;
+        Method factory = virtualFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+            }
+        }
+        System.err.println("⚠️ Virtual thread butuh Java 21+, kembali ke platform thread.");
+        return null;
+    }
+
+    private static ThreadFactory platformThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, namePrefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    public static void awaitAll(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Method virtualFactory() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
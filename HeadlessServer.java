@@ -0,0 +1,194 @@
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class HeadlessServer {
+
+    private final VotingServer server;
+
+    public HeadlessServer(VotingServer server) {
+        this.server = server;
+        server.addListener(new LogListener());
+    }
+
+    public void openConfiguredSessions(Properties config) {
+        for (int i = 1; config.containsKey("session." + i + ".title"); i++) {
+            String prefix = "session." + i + ".";
+            openSession(config.getProperty(prefix + "title"), config.getProperty(prefix + "candidates", ""),
+                    config.getProperty(prefix + "images", ""));
+        }
+    }
+
+    public void openSession(String title, String candidates, String images) {
+        if (server.findActiveSession(title.trim()) != null) {
+            System.out.println("ℹ️ Sesi '" + title.trim() + "' sudah aktif (dipulihkan), tidak dibuka ulang.");
+            return;
+        }
+        try {
+            server.openSession(title, split(candidates), split(images));
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠️ Sesi '" + title + "' tidak dibuka: " + e.getMessage());
+        }
+    }
+
+    public boolean runConsole(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+
+            int space = line.indexOf(' ');
+            String command = (space < 0 ? line : line.substring(0, space)).toLowerCase();
+            String rest = space < 0 ? "" : line.substring(space + 1).trim();
+
+            switch (command) {
+                case "status":
+                    printStatus();
+                    break;
+                case "open": {
+                    int eq = rest.indexOf('=');
+                    if (eq < 0) {
+                        System.out.println("Format: open <judul>=<kandidat1>,<kandidat2>,...");
+                    } else {
+                        openSession(rest.substring(0, eq), rest.substring(eq + 1), "");
+                    }
+                    break;
+                }
+                case "end": {
+                    VotingSession vs = server.findActiveSession(rest);
+                    if (vs == null) {
+                        System.out.println("Sesi aktif '" + rest + "' tidak ditemukan.");
+                    } else {
+                        server.endSession(vs);
+                    }
+                    break;
+                }
+                case "quit":
+                case "exit":
+                    return true;
+                default:
+                    System.out.println("Perintah: status | open <judul>=<a>,<b>,... | end <judul> | quit");
+            }
+        }
+        return false;
+    }
+
+    private void printStatus() {
+        int queued = 0;
+        for (ClientConnection conn : server.getClients()) {
+            queued += conn.getQueuedFrames();
+        }
+        System.out.println("📊 Client: " + server.getConnectedClients() + ", antrian kirim: " + queued
+                + " frame, total sesi: " + server.totalSessionCount());
+        for (VotingSession vs : server.getActiveSessions()) {
+            System.out.println("   🟢 " + vs.getTitle() + " — " + vs.getTotalVotes() + " suara — "
+                    + vs.getVoteSummary());
+        }
+    }
+
+    private static List<String> split(String csv) {
+        if (csv == null || csv.trim().isEmpty())
+            return new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        for (String part : Arrays.asList(csv.split(","))) {
+            parts.add(part.trim());
+        }
+        return parts;
+    }
+
+    private class LogListener implements VotingServerListener {
+
+        @Override
+        public void sessionOpened(VotingSession session) {
+            System.out.println("🟢 Sesi '" + session.getTitle() + "' DIBUKA dengan " + session.getCandidates().size()
+                    + " kandidat.");
+        }
+
+        @Override
+        public void sessionClosed(VotingSession session, boolean saved) {
+            if (!server.isPersistent()) {
+                System.out.println("🏁 Sesi '" + session.getTitle() + "' ditutup: " + session.getWinnerResult());
+                return;
+            }
+            System.out.println((saved ? "🏁 Sesi '" + session.getTitle() + "' ditutup & tersimpan: "
+                    : "⚠️ Sesi '" + session.getTitle() + "' ditutup, tetapi gagal disimpan ke database: ")
+                    + session.getWinnerResult());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        Properties config = new Properties();
+        String engine = System.getProperty("evoting.engine");
+        Integer port = null;
+        List<String[]> sessions = new ArrayList<>();
+        boolean console = true;
+        boolean database = true;
+
+        for (String arg : args) {
+            if (arg.startsWith("--config=")) {
+                try (InputStream in = new FileInputStream(arg.substring("--config=".length()))) {
+                    config.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            } else if (arg.startsWith("--engine=")) {
+                engine = arg.substring("--engine=".length());
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()).trim());
+            } else if (arg.startsWith("--session=")) {
+                String spec = arg.substring("--session=".length());
+                int eq = spec.indexOf('=');
+                if (eq > 0)
+                    sessions.add(new String[] { spec.substring(0, eq), spec.substring(eq + 1) });
+            } else if (arg.equals("--no-console")) {
+                console = false;
+            } else if (arg.equals("--no-db")) {
+                database = false;
+            }
+        }
+        if (engine == null)
+            engine = config.getProperty("engine", "nio");
+        if (port == null)
+            port = Integer.parseInt(config.getProperty("port", String.valueOf(AppTheme.SERVER_PORT)).trim());
+
+        if (database)
+            database = Boolean.parseBoolean(config.getProperty("database", "true").trim());
+
+        VotingServer server = new VotingServer(VotingServer.normalizeEngine(engine), port, database);
+        HeadlessServer headless = new HeadlessServer(server);
+        server.start();
+        System.out.println("🚀 Server headless berjalan di port " + port + " [" + server.getEngineType() + "]");
+
+        headless.openConfiguredSessions(config);
+        for (String[] spec : sessions) {
+            headless.openSession(spec[0], spec[1], "");
+        }
+
+        long statusMs = Long.getLong("evoting.headless.statusMs", 0L);
+        if (statusMs > 0) {
+            ScheduledExecutorService status = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "headless-status");
+                t.setDaemon(true);
+                return t;
+            });
+            status.scheduleWithFixedDelay(headless::printStatus, statusMs, statusMs, TimeUnit.MILLISECONDS);
+        }
+
+        if (console && headless.runConsole(System.in)) {
+            server.stop();
+            System.exit(0);
+        }
+    }
+}
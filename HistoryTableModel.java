@@ -0,0 +1,214 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+public class HistoryTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = { "ID", "Judul Sesi", "Status", "Pemenang / Hasil", "Total Suara",
+            "Waktu Mulai" };
+    private static final int GRAM = 3;
+
+    private final ExecutorService searcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "history-search");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong generation = new AtomicLong();
+
+    private Catalog catalog = Catalog.EMPTY;
+    private String query = "";
+
+    private Row[] rows = new Row[0];
+
+    public void refresh(List<VotingSession> sessions) {
+        List<VotingSession> snapshot = new ArrayList<>(sessions);
+        long gen = generation.incrementAndGet();
+        searcher.execute(() -> {
+            catalog = Catalog.build(snapshot, catalog);
+            if (gen == generation.get())
+                publish(gen, catalog.search(query));
+        });
+    }
+
+    public void filter(String text) {
+        String q = text.toLowerCase().trim();
+        long gen = generation.incrementAndGet();
+        searcher.execute(() -> {
+            query = q;
+            if (gen == generation.get())
+                publish(gen, catalog.search(q));
+        });
+    }
+
+    public VotingSession getSessionAt(int row) {
+        return row >= 0 && row < rows.length ? rows[row].session : null;
+    }
+
+    private void publish(long gen, Row[] matches) {
+        SwingUtilities.invokeLater(() -> {
+            if (gen != generation.get())
+                return;
+            rows = matches;
+            fireTableDataChanged();
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Row s = rows[row];
+        switch (column) {
+            case 0:
+                return row + 1;
+            case 1:
+                return s.title;
+            case 2:
+                return s.status;
+            case 3:
+                return s.winner;
+            case 4:
+                return s.totalVotes;
+            default:
+                return s.started;
+        }
+    }
+
+    private static final class Row {
+        final VotingSession session;
+        final boolean active;
+        final String title;
+        final String lowerTitle;
+        final long[] grams;
+        final String status;
+        final String winner;
+        final int totalVotes;
+        final String started;
+
+        Row(VotingSession vs) {
+            VotingSession.Summary snapshot = vs.getSummary();
+            session = vs;
+            active = snapshot.isActive();
+            title = vs.getTitle();
+            lowerTitle = title.toLowerCase();
+            grams = grams(lowerTitle);
+            status = active ? "🟢 Aktif" : "🔴 Selesai";
+            winner = snapshot.getWinnerResult();
+            totalVotes = (int) snapshot.getTotal();
+            started = new Date(vs.getStartTime()).toString();
+        }
+    }
+
+    private static final class Catalog {
+        static final Catalog EMPTY = new Catalog(new Row[0], new HashMap<>());
+
+        final Row[] summaries;
+        final Map<Long, int[]> postings;
+
+        Catalog(Row[] summaries, Map<Long, int[]> postings) {
+            this.summaries = summaries;
+            this.postings = postings;
+        }
+
+        static Catalog build(List<VotingSession> sessions, Catalog previous) {
+            Map<VotingSession, Row> reusable = new IdentityHashMap<>();
+            for (Row s : previous.summaries) {
+                if (!s.active)
+                    reusable.put(s.session, s);
+            }
+
+            int n = sessions.size();
+            Row[] summaries = new Row[n];
+            for (int i = 0; i < n; i++) {
+                VotingSession vs = sessions.get(n - 1 - i);
+                Row s = reusable.get(vs);
+                summaries[i] = s != null ? s : new Row(vs);
+            }
+
+            Map<Long, int[]> remaining = new HashMap<>();
+            for (Row s : summaries) {
+                for (long g : s.grams) {
+                    remaining.computeIfAbsent(g, k -> new int[1])[0]++;
+                }
+            }
+            Map<Long, int[]> postings = new HashMap<>(remaining.size() * 2);
+            for (Map.Entry<Long, int[]> e : remaining.entrySet()) {
+                postings.put(e.getKey(), new int[e.getValue()[0]]);
+            }
+            for (int i = 0; i < n; i++) {
+                for (long g : summaries[i].grams) {
+                    int[] list = postings.get(g);
+                    int[] left = remaining.get(g);
+                    list[list.length - left[0]--] = i;
+                }
+            }
+            return new Catalog(summaries, postings);
+        }
+
+        Row[] search(String q) {
+            if (q.isEmpty())
+                return summaries;
+
+            List<Row> matches = new ArrayList<>();
+            if (q.length() < GRAM) {
+                for (Row s : summaries) {
+                    if (s.lowerTitle.contains(q))
+                        matches.add(s);
+                }
+                return matches.toArray(new Row[0]);
+            }
+
+            int[] shortest = null;
+            for (long g : grams(q)) {
+                int[] list = postings.get(g);
+                if (list == null)
+                    return new Row[0];
+                if (shortest == null || list.length < shortest.length)
+                    shortest = list;
+            }
+            for (int pos : shortest) {
+                if (summaries[pos].lowerTitle.contains(q))
+                    matches.add(summaries[pos]);
+            }
+            return matches.toArray(new Row[0]);
+        }
+    }
+
+    private static long[] grams(String lower) {
+        if (lower.length() < GRAM)
+            return new long[0];
+        long[] grams = new long[lower.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) lower.charAt(i) << 32) | ((long) lower.charAt(i + 1) << 16) | lower.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1])
+                grams[distinct++] = grams[i];
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+}
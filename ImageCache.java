@@ -0,0 +1,67 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+public class ImageCache {
+
+    private final File directory;
+
+    public ImageCache(File directory) {
+        this.directory = directory;
+        if (!directory.exists())
+            directory.mkdirs();
+    }
+
+    public static ImageCache inUserHome() {
+        String dir = System.getProperty("evoting.imageCache",
+                System.getProperty("user.home") + File.separator + ".evoting" + File.separator + "image_cache");
+        return new ImageCache(new File(dir));
+    }
+
+    public boolean contains(String hash) {
+        return isValidHash(hash) && fileFor(hash).isFile();
+    }
+
+    public byte[] get(String hash) {
+        if (!contains(hash))
+            return null;
+        try {
+            byte[] bytes = Files.readAllBytes(fileFor(hash).toPath());
+            if (ImageStore.sha256(bytes).equals(hash))
+                return bytes;
+            fileFor(hash).delete();
+        } catch (IOException e) {
+        }
+        return null;
+    }
+
+    public boolean put(String hash, byte[] bytes) {
+        if (!isValidHash(hash) || !ImageStore.sha256(bytes).equals(hash))
+            return false;
+        try {
+            File tmp = new File(directory, hash + ".tmp");
+            Files.write(tmp.toPath(), bytes);
+            Files.move(tmp.toPath(), fileFor(hash).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Gagal menyimpan cache gambar: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private File fileFor(String hash) {
+        return new File(directory, hash);
+    }
+
+    private static boolean isValidHash(String hash) {
+        if (hash == null || hash.length() != 64)
+            return false;
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0)
+                return false;
+        }
+        return true;
+    }
+}
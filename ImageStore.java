@@ -0,0 +1,110 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ImageStore {
+
+    private final Map<String, Fingerprint> hashByPath = new ConcurrentHashMap<>();
+    private final Map<String, String> pathByHash = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, byte[]> recentBytes = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxCachedBytes;
+    private long cachedBytes;
+
+    public ImageStore(long maxCachedBytes) {
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    public String hashOf(String path) {
+        if (path == null || path.isEmpty())
+            return "";
+        File file = new File(path);
+        if (!file.isFile())
+            return "";
+
+        Fingerprint known = hashByPath.get(path);
+        if (known != null && known.lastModified == file.lastModified() && known.length == file.length())
+            return known.hash;
+
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            String hash = sha256(bytes);
+            hashByPath.put(path, new Fingerprint(hash, file.lastModified(), file.length()));
+            pathByHash.put(hash, path);
+            remember(hash, bytes);
+            return hash;
+        } catch (IOException e) {
+            System.err.println("Gagal membaca gambar: " + path);
+            return "";
+        }
+    }
+
+    public byte[] load(String hash) {
+        synchronized (recentBytes) {
+            byte[] cached = recentBytes.get(hash);
+            if (cached != null)
+                return cached;
+        }
+
+        String path = pathByHash.get(hash);
+        if (path == null)
+            return null;
+        try {
+            byte[] bytes = Files.readAllBytes(new File(path).toPath());
+            if (!sha256(bytes).equals(hash)) {
+                hashByPath.remove(path);
+                pathByHash.remove(hash);
+                return null;
+            }
+            remember(hash, bytes);
+            return bytes;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void remember(String hash, byte[] bytes) {
+        if (bytes.length > maxCachedBytes)
+            return;
+        synchronized (recentBytes) {
+            byte[] previous = recentBytes.put(hash, bytes);
+            cachedBytes += bytes.length - (previous == null ? 0 : previous.length);
+
+            Iterator<byte[]> it = recentBytes.values().iterator();
+            while (cachedBytes > maxCachedBytes && it.hasNext()) {
+                cachedBytes -= it.next().length;
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Fingerprint {
+        final String hash;
+        final long lastModified;
+        final long length;
+
+        Fingerprint(String hash, long lastModified, long length) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+}
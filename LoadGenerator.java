@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadGenerator {
+
+    private static final long IDLE_PARK_NS = 20_000L;
+
+    private final String host;
+    private final int port;
+    private final int terminalCount;
+    private final int threads;
+    private final int pipeline;
+    private final long intervalNs;
+    private final long durationMs;
+    private final long timeoutNs;
+    private final String sessionFilter;
+
+    private final List<Terminal> terminals = new ArrayList<>();
+    private final List<Recorder> connectTimes = new ArrayList<>();
+    private final List<Recorder> ackTimes = new ArrayList<>();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicInteger alive = new AtomicInteger();
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    public LoadGenerator(String host, int port, int terminalCount, int threads, int pipeline, double votesPerSecond,
+            long durationMs, int timeoutMs, String sessionFilter) {
+        this.host = host;
+        this.port = port;
+        this.terminalCount = terminalCount;
+        this.threads = Math.max(1, threads);
+        this.pipeline = Math.max(1, pipeline);
+        this.intervalNs = votesPerSecond > 0 ? (long) (1_000_000_000L / votesPerSecond) : 0;
+        this.durationMs = durationMs;
+        this.timeoutNs = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.sessionFilter = sessionFilter;
+    }
+
+    public void run() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "loadgen-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        System.out.println("🔌 Membuka " + terminalCount + " terminal ke " + host + ":" + port + " dengan " + threads
+                + " thread...");
+        long connectStart = System.nanoTime();
+        AtomicInteger remaining = new AtomicInteger(terminalCount);
+        CountDownLatch connected = new CountDownLatch(terminalCount);
+        for (int t = 0; t < threads; t++) {
+            Recorder recorder = new Recorder();
+            connectTimes.add(recorder);
+            pool.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    connect(recorder);
+                    connected.countDown();
+                }
+            });
+        }
+        connected.await();
+        double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+        System.out.printf("✅ %d terminal terhubung dalam %.2f s (%d gagal)%n", alive.get(), connectSeconds,
+                errors.get());
+        if (alive.get() == 0) {
+            pool.shutdownNow();
+            return;
+        }
+
+        long connectErrors = errors.getAndSet(0);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        nextSlot.set(start);
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "loadgen-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        long reportMs = Long.getLong("evoting.loadgen.reportMs", 5000L);
+        AtomicLong lastAcked = new AtomicLong();
+        progress.scheduleAtFixedRate(() -> {
+            long now = acked.get();
+            System.out.printf("⏱️ %.0f s: %d suara di-ack (%.0f/s), ditolak %d, error %d, terminal aktif %d%n",
+                    (System.nanoTime() - start) / 1e9, now, (now - lastAcked.getAndSet(now)) * 1000.0 / reportMs,
+                    rejected.get(), errors.get(), alive.get());
+        }, reportMs, reportMs, TimeUnit.MILLISECONDS);
+
+        for (int t = 0; t < threads; t++) {
+            List<Terminal> owned = new ArrayList<>();
+            for (int i = t; i < terminals.size(); i += threads) {
+                owned.add(terminals.get(i));
+            }
+            Recorder recorder = new Recorder();
+            ackTimes.add(recorder);
+            pool.execute(() -> drive(owned, recorder, deadline));
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationMs + TimeUnit.NANOSECONDS.toMillis(timeoutNs) + 5000L, TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        progress.shutdownNow();
+
+        for (Terminal terminal : terminals) {
+            terminal.client.close();
+        }
+        report(seconds, connectErrors);
+    }
+
+    private void connect(Recorder recorder) {
+        Terminal terminal = new Terminal();
+        long begin = System.nanoTime();
+        try {
+            VotingClient.Greeting greeting = terminal.client.connect();
+            for (VotingClient.ActiveSession session : greeting.activeSessions) {
+                if (!session.candidates.isEmpty() && (sessionFilter == null || sessionFilter.equals(session.title)))
+                    terminal.sessions.add(session);
+            }
+            recorder.record(System.nanoTime() - begin);
+            String problem = !terminal.client.supportsVoteAck() ? "Server belum mendukung ACK suara (protokol < "
+                    + Protocol.MIN_VOTE_ACK_VERSION + ")."
+                    : terminal.sessions.isEmpty() ? "Tidak ada sesi aktif" + (sessionFilter == null ? ""
+                            : " '" + sessionFilter + "'") + " yang bisa dipilih." : null;
+            if (problem != null) {
+                if (errors.getAndIncrement() == 0)
+                    System.err.println("⚠️ " + problem);
+                terminal.client.close();
+                return;
+            }
+            alive.incrementAndGet();
+            synchronized (terminals) {
+                terminals.add(terminal);
+            }
+        } catch (IOException e) {
+            terminal.client.close();
+            errors.incrementAndGet();
+        }
+    }
+
+    private void drive(List<Terminal> owned, Recorder recorder, long deadline) {
+        List<Terminal> busy = new ArrayList<>();
+        int next = 0;
+        while (!owned.isEmpty()) {
+            long now = System.nanoTime();
+            boolean sending = now < deadline;
+            if (!sending && busy.isEmpty())
+                return;
+
+            boolean progressed = false;
+            for (int tried = 0; sending && tried < owned.size(); tried++) {
+                next = next >= owned.size() - 1 ? 0 : next + 1;
+                Terminal terminal = owned.get(next);
+                if (terminal.inFlight.size() >= pipeline)
+                    continue;
+                long scheduled = claimSlot(now, deadline);
+                if (scheduled < 0)
+                    break;
+                try {
+                    if (terminal.inFlight.isEmpty())
+                        busy.add(terminal);
+                    terminal.vote(scheduled, recorder);
+                    progressed = true;
+                } catch (IOException e) {
+                    busy.remove(terminal);
+                    drop(terminal, owned);
+                }
+            }
+
+            now = System.nanoTime();
+            for (Iterator<Terminal> it = busy.iterator(); it.hasNext();) {
+                Terminal terminal = it.next();
+                try {
+                    if (terminal.client.hasPendingInput()) {
+                        terminal.client.readPendingUpdates();
+                        progressed = true;
+                    } else if (now - terminal.oldestSent() > timeoutNs) {
+                        throw new IOException("timeout");
+                    }
+                    if (terminal.inFlight.isEmpty())
+                        it.remove();
+                } catch (IOException e) {
+                    it.remove();
+                    drop(terminal, owned);
+                }
+            }
+
+            if (!progressed)
+                LockSupport.parkNanos(IDLE_PARK_NS);
+        }
+    }
+
+    private long claimSlot(long now, long deadline) {
+        if (intervalNs == 0)
+            return now;
+        while (true) {
+            long slot = nextSlot.get();
+            if (slot > now || slot >= deadline)
+                return -1;
+            if (nextSlot.compareAndSet(slot, slot + intervalNs))
+                return slot;
+        }
+    }
+
+    private void drop(Terminal terminal, List<Terminal> owned) {
+        errors.addAndGet(Math.max(1, terminal.inFlight.size()));
+        alive.decrementAndGet();
+        terminal.client.close();
+        owned.remove(terminal);
+    }
+
+    private void report(double seconds, long connectErrors) {
+        long[] connect = Recorder.merge(connectTimes);
+        long[] ack = Recorder.merge(ackTimes);
+
+        System.out.println();
+        System.out.println("📊 Hasil load test");
+        System.out.printf("   Terminal     : %d diminta, %d terhubung, %d gagal konek, pipeline %d%n", terminalCount,
+                connect.length, connectErrors, pipeline);
+        System.out.println("   Koneksi      : " + percentiles(connect));
+        System.out.println("   Ack suara    : " + percentiles(ack));
+        System.out.printf("   Throughput   : %d suara dalam %.2f s = %.0f suara/s%s%n", ack.length, seconds,
+                ack.length / seconds, intervalNs > 0 ? String.format(" (target %.0f/s)", 1e9 / intervalNs) : "");
+        System.out.println("   Ditolak      : " + rejected.get());
+        System.out.println("   Error        : " + errors.get());
+    }
+
+    private static String percentiles(long[] sorted) {
+        if (sorted.length == 0)
+            return "-";
+        return String.format("p50 %s, p99 %s, p999 %s, maks %s", millis(percentile(sorted, 0.50)),
+                millis(percentile(sorted, 0.99)), millis(percentile(sorted, 0.999)),
+                millis(sorted[sorted.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f ms", nanos / 1e6);
+    }
+
+    private final class Terminal implements VotingClientListener {
+        final VotingClient client = new VotingClient(host, port, this);
+        final List<VotingClient.ActiveSession> sessions = new ArrayList<>();
+        final Map<Long, long[]> inFlight = new LinkedHashMap<>();
+        private Recorder recorder;
+
+        void vote(long scheduled, Recorder recorder) throws IOException {
+            this.recorder = recorder;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            VotingClient.ActiveSession session = sessions.get(random.nextInt(sessions.size()));
+            String candidate = session.candidates.get(random.nextInt(session.candidates.size()));
+
+            client.readPendingUpdates();
+            long requestId = client.submitVote(session.title, candidate);
+            inFlight.put(requestId, new long[] { scheduled, System.nanoTime() });
+        }
+
+        long oldestSent() {
+            return inFlight.isEmpty() ? System.nanoTime() : inFlight.values().iterator().next()[1];
+        }
+
+        @Override
+        public void voteAcknowledged(long requestId, String title, String candidate, long roundTripNanos) {
+            long[] times = inFlight.remove(requestId);
+            if (times != null) {
+                recorder.record(System.nanoTime() - times[0]);
+                acked.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void voteRejected(long requestId, String title, String candidate, String reason) {
+            if (inFlight.remove(requestId) != null)
+                rejected.incrementAndGet();
+        }
+    }
+
+    private static final class Recorder {
+        private long[] samples = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == samples.length)
+                samples = Arrays.copyOf(samples, size * 2);
+            samples[size++] = nanos;
+        }
+
+        static long[] merge(List<Recorder> recorders) {
+            int total = 0;
+            for (Recorder r : recorders) {
+                total += r.size;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Recorder r : recorders) {
+                System.arraycopy(r.samples, 0, all, offset, r.size);
+                offset += r.size;
+            }
+            Arrays.sort(all);
+            return all;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+
+        String host = AppTheme.SERVER_HOST;
+        int port = AppTheme.SERVER_PORT;
+        int terminals = 1000;
+        int threads = 8;
+        int pipeline = 1;
+        double rate = 1000;
+        long durationMs = 30_000;
+        int timeoutMs = 5000;
+        String session = null;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String value = eq < 0 ? "" : arg.substring(eq + 1).trim();
+            if (arg.startsWith("--host=")) {
+                host = value;
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(value);
+            } else if (arg.startsWith("--terminals=")) {
+                terminals = Integer.parseInt(value);
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(value);
+            } else if (arg.startsWith("--pipeline=")) {
+                pipeline = Integer.parseInt(value);
+            } else if (arg.startsWith("--rate=")) {
+                rate = Double.parseDouble(value);
+            } else if (arg.startsWith("--duration=")) {
+                durationMs = (long) (Double.parseDouble(value) * 1000);
+            } else if (arg.startsWith("--timeoutMs=")) {
+                timeoutMs = Integer.parseInt(value);
+            } else if (arg.startsWith("--session=")) {
+                session = value;
+            }
+        }
+
+        new LoadGenerator(host, port, terminals, threads, pipeline, rate, durationMs, timeoutMs, session).run();
+        System.exit(0);
+    }
+}
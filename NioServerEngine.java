@@ -0,0 +1,341 @@
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class NioServerEngine implements ServerEngine {
+
+    private static final int INITIAL_READ_BUFFER = 512;
+    private static final int MAX_FRAME_SIZE = Math.max(2 + 65535, 5 + Protocol.MAX_INBOUND_FRAME);
+
+    private final int port;
+    private final ClientHandler handler;
+    private final IoLoop[] loops;
+
+    private volatile boolean running = true;
+    private ServerSocketChannel serverChannel;
+
+    public NioServerEngine(int port, int ioThreads, ClientHandler handler) {
+        this.port = port;
+        this.handler = handler;
+        this.loops = new IoLoop[Math.max(1, ioThreads)];
+    }
+
+    public static int defaultIoThreads() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Integer.getInteger("evoting.ioThreads", Math.max(1, Math.min(4, cpus / 2)));
+    }
+
+    @Override
+    public void run() throws IOException {
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new IoLoop(Selector.open());
+            Thread t = new Thread(loops[i], "nio-io-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        System.out.println("🌐 NIO server aktif di port " + port + " (" + loops.length + " thread I/O)");
+
+        int next = 0;
+        try {
+            while (running) {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+
+                IoLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+
+                NioConnection conn = new NioConnection(channel, loop);
+                handler.onConnect(conn);
+                loop.register(conn);
+            }
+        } catch (IOException e) {
+            if (running)
+                throw e;
+        } finally {
+            stop();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (serverChannel != null)
+                serverChannel.close();
+        } catch (IOException e) {
+        }
+        for (IoLoop loop : loops) {
+            if (loop != null)
+                loop.shutdown();
+        }
+    }
+
+    private class IoLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<NioConnection> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+
+        IoLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(NioConnection conn) {
+            pendingRegistrations.add(conn);
+            selector.wakeup();
+        }
+
+        void requestWrite(NioConnection conn) {
+            pendingWrites.add(conn);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    Object att = key.attachment();
+                    if (att instanceof NioConnection)
+                        ((NioConnection) att).close();
+                }
+                selector.close();
+            } catch (IOException | ClosedSelectorException e) {
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running && selector.isOpen()) {
+                    selector.select();
+                    processRegistrations();
+                    processWriteRequests();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection conn = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            conn.close();
+                            continue;
+                        }
+                        try {
+                            if (key.isReadable())
+                                conn.onReadable();
+                            if (key.isValid() && key.isWritable())
+                                conn.onWritable();
+                        } catch (IOException e) {
+                            conn.close();
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+            }
+        }
+
+        private void processRegistrations() {
+            NioConnection conn;
+            while ((conn = pendingRegistrations.poll()) != null) {
+                try {
+                    int ops = SelectionKey.OP_READ;
+                    if (conn.outbound.size() > 0)
+                        ops |= SelectionKey.OP_WRITE;
+                    conn.key = conn.channel.register(selector, ops, conn);
+                } catch (IOException e) {
+                    conn.close();
+                }
+            }
+        }
+
+        private void processWriteRequests() {
+            NioConnection conn;
+            while ((conn = pendingWrites.poll()) != null) {
+                conn.writeRequested.set(false);
+                SelectionKey key = conn.key;
+                if (key != null && key.isValid()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+    }
+
+    private class NioConnection implements ClientConnection {
+        private final SocketChannel channel;
+        private final IoLoop loop;
+        private final String remoteAddress;
+        private final OutboundQueue outbound = OutboundQueue.withDefaults();
+        private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile Object attachment;
+
+        private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+        private ByteBuffer writing;
+        private final int[] headerLength = new int[1];
+        private volatile boolean binaryFraming;
+        private volatile SelectionKey key;
+
+        NioConnection(SocketChannel channel, IoLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+            String addr;
+            try {
+                addr = String.valueOf(channel.getRemoteAddress());
+            } catch (IOException e) {
+                addr = "?";
+            }
+            this.remoteAddress = addr;
+        }
+
+        @Override
+        public void send(byte[] frame, String coalesceKey, byte[] supersedingFrame) {
+            if (closed.get())
+                return;
+            if (!outbound.offer(frame, coalesceKey, supersedingFrame)) {
+                OutboundQueue.recordEviction(remoteAddress);
+                close();
+                return;
+            }
+            if (writeRequested.compareAndSet(false, true)) {
+                loop.requestWrite(this);
+            }
+        }
+
+        @Override
+        public int getQueuedFrames() {
+            return outbound.size();
+        }
+
+        @Override
+        public Object getAttachment() {
+            return attachment;
+        }
+
+        @Override
+        public void setAttachment(Object attachment) {
+            this.attachment = attachment;
+        }
+
+        @Override
+        public void setBinaryFraming(boolean binary) {
+            this.binaryFraming = binary;
+        }
+
+        @Override
+        public boolean isBinaryFraming() {
+            return binaryFraming;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed.get();
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return remoteAddress;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true))
+                return;
+            if (key != null)
+                key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+            }
+            outbound.close();
+            handler.onDisconnect(this);
+        }
+
+        void onReadable() throws IOException {
+            int n = channel.read(readBuffer);
+            if (n < 0) {
+                close();
+                return;
+            }
+
+            readBuffer.flip();
+            while (readBuffer.hasRemaining()) {
+                boolean binary = binaryFraming;
+                int header;
+                int len;
+                if (binary) {
+                    len = Protocol.peekFrameHeader(readBuffer, headerLength);
+                    if (len == Protocol.FRAME_INVALID)
+                        throw new IOException("Panjang frame tidak valid");
+                    if (len == Protocol.FRAME_INCOMPLETE)
+                        break;
+                    if (len > Protocol.MAX_INBOUND_FRAME)
+                        throw new IOException("Frame terlalu besar: " + len);
+                    header = headerLength[0];
+                } else {
+                    if (readBuffer.remaining() < 2)
+                        break;
+                    len = ((readBuffer.get(readBuffer.position()) & 0xFF) << 8)
+                            | (readBuffer.get(readBuffer.position() + 1) & 0xFF);
+                    header = 2;
+                }
+
+                int frameSize = header + len;
+                if (readBuffer.remaining() < frameSize) {
+                    if (readBuffer.capacity() < frameSize) {
+                        ByteBuffer bigger = ByteBuffer.allocate(Math.min(MAX_FRAME_SIZE,
+                                Math.max(frameSize, readBuffer.capacity() * 2)));
+                        bigger.put(readBuffer);
+                        bigger.flip();
+                        readBuffer = bigger;
+                    }
+                    break;
+                }
+
+                if (binary) {
+                    byte[] body = new byte[len];
+                    readBuffer.position(readBuffer.position() + header);
+                    readBuffer.get(body);
+                    handler.onBinaryMessage(this, body);
+                } else {
+                    byte[] frame = new byte[frameSize];
+                    readBuffer.get(frame);
+                    String msg = new DataInputStream(new ByteArrayInputStream(frame)).readUTF();
+                    handler.onMessage(this, msg);
+                }
+                if (closed.get())
+                    return;
+            }
+            readBuffer.compact();
+        }
+
+        void onWritable() throws IOException {
+            while (true) {
+                if (writing == null) {
+                    byte[] next = outbound.poll();
+                    if (next == null)
+                        break;
+                    writing = ByteBuffer.wrap(next);
+                }
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    return;
+                }
+                writing = null;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class OutboundQueue {
+
+    private static final LongAdder EVICTIONS = new LongAdder();
+    private static final LongAdder MERGED_FRAMES = new LongAdder();
+
+    private final int maxFrames;
+    private final long maxBytes;
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private final Map<String, Entry> pendingByKey = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    private long pendingBytes;
+    private boolean closed;
+
+    public OutboundQueue(int maxFrames, long maxBytes) {
+        this.maxFrames = maxFrames;
+        this.maxBytes = maxBytes;
+    }
+
+    public static OutboundQueue withDefaults() {
+        return new OutboundQueue(Integer.getInteger("evoting.queue.maxFrames", 512),
+                Long.getLong("evoting.queue.maxBytes", 16L * 1024 * 1024));
+    }
+
+    public boolean offer(byte[] frame, String coalesceKey, byte[] supersedingFrame) {
+        lock.lock();
+        try {
+            if (closed)
+                return true;
+
+            if (coalesceKey != null) {
+                Entry stale = pendingByKey.get(coalesceKey);
+                if (stale != null) {
+                    pendingBytes += supersedingFrame.length - stale.data.length;
+                    stale.data = supersedingFrame;
+                    MERGED_FRAMES.increment();
+                    return true;
+                }
+            }
+
+            Entry entry = new Entry(frame, coalesceKey);
+            entries.add(entry);
+            if (coalesceKey != null)
+                pendingByKey.put(coalesceKey, entry);
+            pendingBytes += frame.length;
+            notEmpty.signal();
+
+            return entries.size() <= maxFrames && pendingBytes <= maxBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public byte[] poll() {
+        lock.lock();
+        try {
+            return removeHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public byte[] take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (entries.isEmpty() && !closed) {
+                notEmpty.await();
+            }
+            return removeHead();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            entries.clear();
+            pendingByKey.clear();
+            pendingBytes = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long bytes() {
+        lock.lock();
+        try {
+            return pendingBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static void recordEviction(String remoteAddress) {
+        EVICTIONS.increment();
+        System.out.println("🐢 EVICT: client lambat diputus " + remoteAddress);
+    }
+
+    public static long getEvictionCount() {
+        return EVICTIONS.sum();
+    }
+
+    public static long getMergedFrameCount() {
+        return MERGED_FRAMES.sum();
+    }
+
+    private byte[] removeHead() {
+        Entry head = entries.poll();
+        if (head == null)
+            return null;
+        if (head.key != null)
+            pendingByKey.remove(head.key);
+        pendingBytes -= head.data.length;
+        return head.data;
+    }
+
+    private static final class Entry {
+        byte[] data;
+        final String key;
+
+        Entry(byte[] data, String key) {
+            this.data = data;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class Protocol {
+
+    public static final int VERSION = 6;
+    public static final int MIN_BINARY_VERSION = 2;
+    public static final int MIN_IMAGE_REF_VERSION = 3;
+    public static final int MIN_HISTORY_PAGING_VERSION = 4;
+    public static final int MIN_VOTE_ACK_VERSION = 5;
+    public static final int MIN_HISTORY_ID_VERSION = 6;
+
+    public static final String HELLO = "HELLO|";
+    public static final String HELLO_OK = "HELLO_OK|";
+
+    public static final byte HISTORY_LIST = 1;
+    public static final byte MULTI_SETUP = 2;
+    public static final byte WAIT = 3;
+    public static final byte REFRESH_STATS = 4;
+    public static final byte STATS_DELTA = 5;
+    public static final byte IMAGE = 6;
+    public static final byte HISTORY_PAGE = 7;
+    public static final byte VOTE_ACK = 8;
+    public static final byte VOTE_NACK = 9;
+
+    public static final byte VOTE = 20;
+    public static final byte RESYNC = 21;
+    public static final byte GET_IMAGE = 22;
+    public static final byte HISTORY_MORE = 23;
+    public static final byte VOTE_REQUEST = 24;
+
+    public static final int MAX_INBOUND_FRAME = 64 * 1024;
+
+    public static final int FRAME_INCOMPLETE = -1;
+    public static final int FRAME_INVALID = -2;
+
+    private Protocol() {
+    }
+
+    public static byte[] encodeText(String message) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(message.length() + 2);
+        try {
+            new DataOutputStream(buffer).writeUTF(message);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Pesan terlalu panjang untuk writeUTF", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static byte[] readFrame(DataInputStream in, int maxLength) throws IOException {
+        long length = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.read();
+            if (b < 0)
+                throw new EOFException();
+            length |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                break;
+            shift += 7;
+            if (shift > 28)
+                throw new IOException("Panjang frame tidak valid");
+        }
+        if (length > maxLength)
+            throw new IOException("Frame terlalu besar: " + length);
+        byte[] body = new byte[(int) length];
+        in.readFully(body);
+        return body;
+    }
+
+    public static int peekFrameHeader(ByteBuffer buffer, int[] headerLength) {
+        int pos = buffer.position();
+        int length = 0;
+        int shift = 0;
+        for (int i = 0; i < 5; i++) {
+            if (pos + i >= buffer.limit())
+                return FRAME_INCOMPLETE;
+            int b = buffer.get(pos + i) & 0xFF;
+            if (shift == 28 && (b & 0xF8) != 0)
+                return FRAME_INVALID;
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                headerLength[0] = i + 1;
+                return length;
+            }
+            shift += 7;
+        }
+        return FRAME_INVALID;
+    }
+
+    public static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        public Writer(byte type) {
+            this(type, 64);
+        }
+
+        public Writer(byte type, int capacity) {
+            this(capacity);
+            writeByte(type);
+        }
+
+        private Writer(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        public static Writer fragment(int capacity) {
+            return new Writer(capacity);
+        }
+
+        public Writer writeByte(int value) {
+            ensure(1);
+            buf[size++] = (byte) value;
+            return this;
+        }
+
+        public Writer writeBoolean(boolean value) {
+            return writeByte(value ? 1 : 0);
+        }
+
+        public Writer writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+            return this;
+        }
+
+        public Writer writeString(String value) {
+            byte[] utf = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf.length);
+            return writeRaw(utf);
+        }
+
+        public Writer writeBytes(byte[] value) {
+            writeVarint(value.length);
+            return writeRaw(value);
+        }
+
+        public Writer writeRaw(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, buf, size, value.length);
+            size += value.length;
+            return this;
+        }
+
+        public byte[] toBytes() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        public byte[] toFrame() {
+            int header = 1;
+            for (int n = size; (n & ~0x7F) != 0; n >>>= 7)
+                header++;
+
+            byte[] frame = new byte[header + size];
+            int p = 0;
+            int n = size;
+            while ((n & ~0x7F) != 0) {
+                frame[p++] = (byte) ((n & 0x7F) | 0x80);
+                n >>>= 7;
+            }
+            frame[p++] = (byte) n;
+            System.arraycopy(buf, 0, frame, p, size);
+            return frame;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+
+    public static final class Reader {
+        private final byte[] body;
+        private int pos;
+
+        public Reader(byte[] body) {
+            this.body = body;
+        }
+
+        public byte type() {
+            return body.length == 0 ? 0 : body[0];
+        }
+
+        public Reader skipType() {
+            pos = 1;
+            return this;
+        }
+
+        public int readByte() throws IOException {
+            if (pos >= body.length)
+                throw new EOFException();
+            return body[pos++] & 0xFF;
+        }
+
+        public boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        public long readVarint() throws IOException {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return value;
+                shift += 7;
+                if (shift > 63)
+                    throw new IOException("Varint terlalu panjang");
+            }
+        }
+
+        public int readCount() throws IOException {
+            long n = readVarint();
+            if (n < 0 || n > body.length - pos)
+                throw new IOException("Jumlah elemen tidak valid: " + n);
+            return (int) n;
+        }
+
+        public String readString() throws IOException {
+            int len = readCount();
+            String value = new String(body, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return value;
+        }
+
+        public byte[] readBytes() throws IOException {
+            int len = readCount();
+            byte[] value = Arrays.copyOfRange(body, pos, pos + len);
+            pos += len;
+            return value;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.*;
-import java.nio.file.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -13,15 +15,14 @@ import javax.swing.table.JTableHeader;
 
 public class ServerAdmin extends JFrame {
 
-    private List<VotingSession> historySessions = new ArrayList<>();
-    private List<VotingSession> activeSessions = new ArrayList<>();
-    private VotingSession viewedSession;
+    private final VotingServer server;
+    private final List<VotingSession> historySessions;
+    private final List<VotingSession> activeSessions;
+    private volatile VotingSession viewedSession;
 
-    private boolean isServerRunning = true;
-    private int connectedClients = 0;
     private List<CandidateInputRow> inputRows = new ArrayList<>();
-
-    private List<DataOutputStream> activeClientStreams = Collections.synchronizedList(new ArrayList<>());
+    private static final int LIVE_REFRESH_MS = 1000 / Math.max(1, Integer.getInteger("evoting.ui.maxFps", 30));
+    private final AtomicBoolean liveViewDirty = new AtomicBoolean(true);
 
     private String lastPageTag = "PAGE_DASHBOARD";
     private AppTheme.SidebarButton lastActiveButton = null;
@@ -35,10 +36,14 @@ public class ServerAdmin extends JFrame {
     private AppTheme.SidebarButton btnStressTest;
 
     private JLabel lblStatTotalVotes, lblStatTotalSessions, lblStatClients;
+    private JLabel lblServerMetrics;
     private DefaultTableModel tableModelDashboard;
     private JTable dashboardTable;
+    private final List<Long> dashboardSessionIds = new ArrayList<>();
 
-    private DefaultTableModel tableModelHistory;
+    private HistoryTableModel tableModelHistory;
+    private static final int SEARCH_DEBOUNCE_MS = Integer.getInteger("evoting.ui.searchDebounceMs", 150);
+    private static final int STRESS_PLATFORM_THREADS = Integer.getInteger("evoting.stress.platformThreads", 200);
     private JTable historyTable;
 
     private GraphPanel liveGraphPanel;
@@ -52,24 +57,32 @@ public class ServerAdmin extends JFrame {
     private JPanel candidatesContainer;
 
     public ServerAdmin() {
-        setTitle("Admin Dashboard - E-Voting System (V3.2)");
+        this("nio");
+    }
+
+    public ServerAdmin(String engineType) {
+        this(new VotingServer(engineType, AppTheme.SERVER_PORT));
+    }
+
+    public ServerAdmin(VotingServer server) {
+        this.server = server;
+        this.historySessions = server.getHistorySessions();
+        this.activeSessions = server.getActiveSessions();
+
+        setTitle("Admin Dashboard - E-Voting System (V3.2) [" + server.getEngineType() + "]");
         setSize(1280, 800);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
-        DatabaseManager.initDatabase();
-        loadHistoryFromDB();
+        server.start();
 
         initSidebar();
         initContentArea();
 
-        new Thread(this::startServer).start();
-    }
-
-    private void loadHistoryFromDB() {
-        historySessions.clear();
-        historySessions.addAll(DatabaseManager.getAllHistory());
+        server.addListener(new AdminListener());
+        new javax.swing.Timer(1000, e -> updateServerMetrics()).start();
+        new javax.swing.Timer(LIVE_REFRESH_MS, e -> refreshLiveView()).start();
     }
 
     private void initSidebar() {
@@ -182,6 +195,15 @@ public class ServerAdmin extends JFrame {
         statsGrid.add(createStatCard("Total Kegiatan", lblStatTotalSessions));
         statsGrid.add(createStatCard("Client Terhubung", lblStatClients));
 
+        lblServerMetrics = new JLabel(" ");
+        lblServerMetrics.setFont(AppTheme.FONT_BODY);
+        lblServerMetrics.setForeground(AppTheme.COLOR_TEXT_MUTED);
+
+        JPanel statsBox = new JPanel(new BorderLayout(0, 10));
+        statsBox.setOpaque(false);
+        statsBox.add(statsGrid, BorderLayout.CENTER);
+        statsBox.add(lblServerMetrics, BorderLayout.SOUTH);
+
         JPanel tablePanel = AppTheme.createShadowPanel();
         tablePanel.setLayout(new BorderLayout());
 
@@ -204,11 +226,10 @@ public class ServerAdmin extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() >= 1) {
                     int row = dashboardTable.getSelectedRow();
-                    if (row != -1) {
-                        int sessionIndex = historySessions.size() - 1 - row;
-                        if (sessionIndex >= 0 && sessionIndex < historySessions.size()) {
-                            loadSessionToMonitor(historySessions.get(sessionIndex));
-                        }
+                    if (row >= 0 && row < dashboardSessionIds.size()) {
+                        VotingSession vs = server.findSession(dashboardSessionIds.get(row));
+                        if (vs != null)
+                            loadSessionToMonitor(vs);
                     }
                 }
             }
@@ -217,7 +238,7 @@ public class ServerAdmin extends JFrame {
         tablePanel.add(lblTableTitle, BorderLayout.NORTH);
         tablePanel.add(new JScrollPane(dashboardTable), BorderLayout.CENTER);
 
-        centerContainer.add(statsGrid, BorderLayout.NORTH);
+        centerContainer.add(statsBox, BorderLayout.NORTH);
         centerContainer.add(tablePanel, BorderLayout.CENTER);
 
         panel.add(centerContainer, BorderLayout.CENTER);
@@ -244,9 +265,20 @@ public class ServerAdmin extends JFrame {
         JTextField txtSearch = new JTextField(15);
         txtSearch.putClientProperty("JTextField.placeholderText", "Ketik nama kegiatan...");
 
-        txtSearch.addKeyListener(new java.awt.event.KeyAdapter() {
-            public void keyReleased(java.awt.event.KeyEvent evt) {
-                updateHistoryTable(txtSearch.getText());
+        javax.swing.Timer searchDebounce = new javax.swing.Timer(SEARCH_DEBOUNCE_MS,
+                e -> tableModelHistory.filter(txtSearch.getText()));
+        searchDebounce.setRepeats(false);
+        txtSearch.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounce.restart();
+            }
+
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                searchDebounce.restart();
             }
         });
 
@@ -259,13 +291,7 @@ public class ServerAdmin extends JFrame {
         JPanel tablePanel = AppTheme.createShadowPanel();
         tablePanel.setLayout(new BorderLayout());
 
-        String[] columns = { "ID", "Judul Sesi", "Status", "Pemenang / Hasil", "Total Suara", "Waktu Mulai" };
-        tableModelHistory = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModelHistory = new HistoryTableModel();
         historyTable = new JTable(tableModelHistory);
         setupTableStyle(historyTable);
 
@@ -274,21 +300,23 @@ public class ServerAdmin extends JFrame {
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() >= 1) {
                     int row = historyTable.getSelectedRow();
-                    if (row != -1) {
-                        String titleClicked = (String) tableModelHistory.getValueAt(row, 1);
-
-                        for (VotingSession vs : historySessions) {
-                            if (vs.getTitle().equals(titleClicked)) {
-                                loadSessionToMonitor(vs);
-                                break;
-                            }
-                        }
+                    VotingSession clicked = tableModelHistory.getSessionAt(row);
+                    if (clicked != null) {
+                        loadSessionToMonitor(clicked);
                     }
                 }
             }
         });
 
-        tablePanel.add(new JScrollPane(historyTable), BorderLayout.CENTER);
+        JScrollPane historyScroll = new JScrollPane(historyTable);
+        historyScroll.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - historyTable.getRowHeight() * 5) {
+                server.loadMoreHistory();
+            }
+        });
+
+        tablePanel.add(historyScroll, BorderLayout.CENTER);
         panel.add(tablePanel, BorderLayout.CENTER);
 
         return panel;
@@ -457,7 +485,8 @@ public class ServerAdmin extends JFrame {
                 btnManageCandidates.setVisible(false);
             }
         }
-        liveGraphPanel.repaint();
+        liveViewDirty.set(true);
+        refreshLiveView();
     }
 
     private JPanel createStatCard(String title, JLabel valueLabel) {
@@ -474,57 +503,21 @@ public class ServerAdmin extends JFrame {
     }
 
     private void startNewSession() {
-        String title = txtSessionTitle.getText().trim();
-        if (title.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Judul sesi tidak boleh kosong!");
-            return;
-        }
-
-        List<String> validNames = new ArrayList<>();
-        List<String> validPaths = new ArrayList<>();
-        Set<String> uniqueCheck = new HashSet<>();
-        File imgDir = new File("server_images");
-        if (!imgDir.exists())
-            imgDir.mkdir();
-
+        List<String> names = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
         for (CandidateInputRow row : inputRows) {
-            String name = row.txtName.getText().trim();
-            if (name.isEmpty())
-                continue;
-
-            if (uniqueCheck.contains(name.toLowerCase())) {
-                JOptionPane.showMessageDialog(this, "Nama kandidat tidak boleh kembar: " + name);
-                return;
-            }
-            uniqueCheck.add(name.toLowerCase());
-            validNames.add(name);
-
-            String finalPath = "";
-            if (row.imagePath != null) {
-                try {
-                    File source = new File(row.imagePath);
-                    String ext = source.getName().substring(source.getName().lastIndexOf("."));
-                    String newFileName = System.currentTimeMillis() + "_" + name.replaceAll("\\s+", "") + ext;
-                    File dest = new File(imgDir, newFileName);
-                    Files.copy(source.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                    finalPath = dest.getAbsolutePath();
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                }
-            }
-            validPaths.add(finalPath);
+            names.add(row.txtName.getText());
+            paths.add(row.imagePath);
         }
 
-        if (validNames.size() < 2) {
-            JOptionPane.showMessageDialog(this, "Minimal 2 kandidat!");
+        VotingSession newSession;
+        try {
+            newSession = server.openSession(txtSessionTitle.getText(), names, paths);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage());
             return;
         }
 
-        VotingSession newSession = new VotingSession(title, validNames.toArray(new String[0]),
-                validPaths.toArray(new String[0]));
-        activeSessions.add(newSession);
-        historySessions.add(newSession);
-
         resetFormToDefault();
         loadSessionToMonitor(newSession);
 
@@ -534,7 +527,8 @@ public class ServerAdmin extends JFrame {
         updateDashboardTable();
         updateHistoryTable();
 
-        JOptionPane.showMessageDialog(this, "Sesi '" + title + "' DIBUKA! Client dapat melihat sesi baru.");
+        JOptionPane.showMessageDialog(this,
+                "Sesi '" + newSession.getTitle() + "' DIBUKA! Client dapat melihat sesi baru.");
     }
 
     private void actionEndSession() {
@@ -545,21 +539,19 @@ public class ServerAdmin extends JFrame {
                 "Akhiri sesi '" + viewedSession.getTitle() + "' dan SIMPAN hasil?", "Konfirmasi",
                 JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            viewedSession.endSession();
-            activeSessions.remove(viewedSession);
-            DatabaseManager.saveSession(viewedSession);
+            server.endSession(viewedSession);
 
             refreshMonitorUI();
             updateDashboardTable();
             updateHistoryTable();
-            JOptionPane.showMessageDialog(this, "Sesi Ditutup & Data Tersimpan!");
         }
     }
 
     private void updateDashboardTable() {
         tableModelDashboard.setRowCount(0);
+        dashboardSessionIds.clear();
 
-        lblStatTotalSessions.setText(String.valueOf(historySessions.size()));
+        lblStatTotalSessions.setText(String.valueOf(server.totalSessionCount()));
 
         int startIdx = historySessions.size() - 1;
         int endIdx = Math.max(0, historySessions.size() - 5);
@@ -567,46 +559,55 @@ public class ServerAdmin extends JFrame {
         int displayId = 1;
         for (int i = startIdx; i >= endIdx; i--) {
             VotingSession vs = historySessions.get(i);
-            String status = vs.isActive() ? "🟢 Aktif" : "🔴 Selesai";
-            tableModelDashboard.addRow(new Object[] { displayId++, vs.getTitle(), status, vs.getWinnerResult(),
-                    vs.getTotalVotes() + " Suara" });
+            VotingSession.Summary summary = vs.getSummary();
+            String status = summary.isActive() ? "🟢 Aktif" : "🔴 Selesai";
+            dashboardSessionIds.add(vs.getSessionId());
+            tableModelDashboard.addRow(new Object[] { displayId++, vs.getTitle(), status, summary.getWinnerResult(),
+                    summary.getTotal() + " Suara" });
         }
     }
 
     private void updateHistoryTable() {
-        updateHistoryTable("");
+        tableModelHistory.refresh(historySessions);
     }
 
-    private void updateHistoryTable(String searchQuery) {
-        tableModelHistory.setRowCount(0);
-        int displayId = 1;
-        String query = searchQuery.toLowerCase().trim();
-
-        for (int i = historySessions.size() - 1; i >= 0; i--) {
-            VotingSession vs = historySessions.get(i);
+    private void markLiveViewDirty() {
+        liveViewDirty.set(true);
+    }
 
-            if (!query.isEmpty() && !vs.getTitle().toLowerCase().contains(query)) {
-                continue;
-            }
+    private void refreshLiveView() {
+        if (!liveViewDirty.getAndSet(false))
+            return;
 
-            String status = vs.isActive() ? "🟢 Aktif" : "🔴 Selesai";
-            Date date = new Date(vs.getStartTime());
-            tableModelHistory.addRow(new Object[] { displayId++, vs.getTitle(), status, vs.getWinnerResult(),
-                    vs.getTotalVotes(), date.toString() });
-        }
+        VotingSession session = viewedSession;
+        VotingSession.Tally tally = session == null ? null : session.getTally();
+        lblStatClients.setText(String.valueOf(server.getConnectedClients()));
+        if (session != null && session.isActive())
+            lblStatTotalVotes.setText(String.valueOf(tally.getTotal()));
+        liveGraphPanel.showTally(tally);
     }
 
-    private void updateRealtimeStats() {
-        if (viewedSession != null && viewedSession.isActive()) {
-            lblStatTotalVotes.setText(String.valueOf(viewedSession.getTotalVotes()));
-            liveGraphPanel.repaint();
+    private void updateServerMetrics() {
+        int queued = 0;
+        int deepest = 0;
+        for (ClientConnection conn : server.getClients()) {
+            int depth = conn.getQueuedFrames();
+            queued += depth;
+            deepest = Math.max(deepest, depth);
         }
+        ConnectionPool pool = DatabaseManager.getPool();
+        lblServerMetrics.setText("Antrian kirim: " + queued + " frame (terdalam " + deepest + ")"
+                + "   •   Frame digabung: " + OutboundQueue.getMergedFrameCount()
+                + "   •   Client lambat diputus: " + OutboundQueue.getEvictionCount()
+                + String.format("   •   DB pool: %d aktif / %d idle (maks %d), tunggu %.1f ms (maks %.1f ms)",
+                        pool.getActiveCount(), pool.getIdleCount(), pool.getMaxSize(), pool.getAverageWaitMs(),
+                        pool.getMaxWaitMs()));
     }
 
     private void showAdvancedStressTestDialog() {
         JDialog dialog = new JDialog(this, "Stress Test Configuration", true);
         dialog.setLayout(new BorderLayout());
-        dialog.setSize(400, 400);
+        dialog.setSize(400, 460);
         dialog.setLocationRelativeTo(this);
 
         JPanel content = new JPanel();
@@ -614,15 +615,15 @@ public class ServerAdmin extends JFrame {
         content.setBorder(new EmptyBorder(20, 20, 20, 20));
 
         content.add(new JLabel("Target Sesi:"));
-        JComboBox<String> comboSession = new JComboBox<>();
+        JComboBox<SessionChoice> comboSession = new JComboBox<>();
 
         for (VotingSession vs : activeSessions) {
-            comboSession.addItem("LIVE: " + vs.getTitle());
+            comboSession.addItem(new SessionChoice(vs.getSessionId(), "LIVE: " + vs.getTitle()));
         }
         for (int i = historySessions.size() - 1; i >= Math.max(0, historySessions.size() - 5); i--) {
             VotingSession vs = historySessions.get(i);
             if (!vs.isActive()) {
-                comboSession.addItem("ARCHIVE: " + vs.getTitle());
+                comboSession.addItem(new SessionChoice(vs.getSessionId(), "ARCHIVE: " + vs.getTitle()));
             }
         }
         content.add(comboSession);
@@ -648,32 +649,22 @@ public class ServerAdmin extends JFrame {
         content.add(radioNoSave);
         content.add(Box.createVerticalStrut(20));
 
-        JButton btnStart = new JButton("MULAI SIMULASI (50 Votes)");
+        content.add(new JLabel("Jumlah Voter Simulasi (" + server.getExecutionMode() + " thread):"));
+        JSpinner spinVotes = new JSpinner(new SpinnerNumberModel(50, 1, 1_000_000, 50));
+        spinVotes.setAlignmentX(Component.LEFT_ALIGNMENT);
+        content.add(spinVotes);
+        content.add(Box.createVerticalStrut(20));
+
+        JButton btnStart = new JButton("MULAI SIMULASI");
         btnStart.addActionListener(e -> {
-            String selectedItem = (String) comboSession.getSelectedItem();
+            SessionChoice selectedItem = (SessionChoice) comboSession.getSelectedItem();
             if (selectedItem == null)
                 return;
 
-            VotingSession target = null;
-            if (selectedItem.startsWith("LIVE")) {
-                for (VotingSession vs : activeSessions) {
-                    if (selectedItem.contains(vs.getTitle())) {
-                        target = vs;
-                        break;
-                    }
-                }
-            } else {
-                String title = selectedItem.replace("ARCHIVE: ", "");
-                for (VotingSession vs : historySessions) {
-                    if (vs.getTitle().equals(title)) {
-                        target = vs;
-                        break;
-                    }
-                }
-            }
-
+            VotingSession target = server.findSession(selectedItem.sessionId);
             if (target != null) {
-                runStressTest(target, radioUnsafe.isSelected(), radioNoSave.isSelected());
+                runStressTest(target, (Integer) spinVotes.getValue(), radioUnsafe.isSelected(),
+                        radioNoSave.isSelected());
                 dialog.dispose();
                 loadSessionToMonitor(target);
             }
@@ -684,135 +675,38 @@ public class ServerAdmin extends JFrame {
         dialog.setVisible(true);
     }
 
-    private void runStressTest(VotingSession target, boolean isUnsafe, boolean isNoSave) {
+    private void runStressTest(VotingSession target, int voteCount, boolean isUnsafe, boolean isNoSave) {
         List<String> candidates = new ArrayList<>(target.getCandidates());
         if (candidates.isEmpty())
             return;
 
-        for (int i = 0; i < 50; i++) {
-            new Thread(() -> {
-                String rand = candidates.get((int) (Math.random() * candidates.size()));
-
-                if (isUnsafe) {
-                    target.addVoteUnsafe(rand);
-                } else {
-                    target.addVote(rand);
-                }
-
-                SwingUtilities.invokeLater(() -> {
-                    liveGraphPanel.repaint();
-                    if (activeSessions.contains(target))
-                        lblStatTotalVotes.setText(String.valueOf(target.getTotalVotes()));
-                });
-            }).start();
-        }
-    }
-
-    private void startServer() {
-        try (ServerSocket serverSocket = new ServerSocket(AppTheme.SERVER_PORT)) {
-            while (isServerRunning) {
-                Socket client = serverSocket.accept();
-                connectedClients++;
-                SwingUtilities.invokeLater(() -> lblStatClients.setText(String.valueOf(connectedClients)));
-                new Thread(() -> handleClient(client)).start();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private void handleClient(Socket socket) {
-        DataInputStream in = null;
-        DataOutputStream out = null;
-        try {
-            in = new DataInputStream(socket.getInputStream());
-            out = new DataOutputStream(socket.getOutputStream());
-
-            activeClientStreams.add(out);
-
-            StringBuilder sbHistory = new StringBuilder("HISTORY_LIST|");
-            for (VotingSession vs : historySessions) {
-                sbHistory.append(vs.getTitle()).append(";")
-                        .append(vs.isActive()).append(";")
-                        .append(vs.getWinnerResult()).append(";")
-                        .append(vs.getVoteSummary()).append("#");
-            }
-            out.writeUTF(sbHistory.toString());
-
-            sendActiveSessionsPayload(out);
-
-            while (true) {
-                String msg = in.readUTF();
-                if (msg.startsWith("VOTE|")) {
-                    String[] parts = msg.split("\\|");
-                    if (parts.length >= 3) {
-                        String sessionTitle = parts[1];
-                        String candidateName = parts[2];
-
-                        for (VotingSession vs : activeSessions) {
-                            if (vs.getTitle().equals(sessionTitle)) {
-                                vs.addVote(candidateName);
-                                SwingUtilities.invokeLater(this::updateRealtimeStats);
-                                broadcastUpdate();
-                                break;
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-        } finally {
-            if (out != null)
-                activeClientStreams.remove(out);
-            connectedClients--;
-            SwingUtilities.invokeLater(() -> lblStatClients.setText(String.valueOf(connectedClients)));
+        ExecutionMode mode = server.getExecutionMode();
+        new Thread(() -> {
+            long start = System.nanoTime();
+            ExecutorService voters = mode.newBoundedExecutor("stress-voter", STRESS_PLATFORM_THREADS);
             try {
-                socket.close();
-            } catch (IOException ex) {
-            }
-        }
-    }
+                for (int i = 0; i < voteCount; i++) {
+                    voters.execute(() -> {
+                        String rand = candidates.get((int) (Math.random() * candidates.size()));
+
+                        if (isUnsafe) {
+                            target.addVoteUnsafe(rand);
+                        } else {
+                            server.castVote(target, rand, !isNoSave);
+                        }
 
-    private void sendActiveSessionsPayload(DataOutputStream out) throws IOException {
-        List<VotingSession> liveSessions = new ArrayList<>(activeSessions);
-
-        if (!liveSessions.isEmpty()) {
-            out.writeUTF("MULTI_SETUP|" + liveSessions.size());
-
-            for (VotingSession session : liveSessions) {
-                out.writeUTF(session.getTitle());
-                java.util.Set<String> candidates = session.getCandidates();
-                out.writeInt(candidates.size());
-
-                for (String name : candidates) {
-                    out.writeUTF(name);
-                    String path = session.getCandidateImage(name);
-                    File imgFile = new File(path);
-                    if (imgFile.exists() && !imgFile.isDirectory()) {
-                        byte[] bytes = Files.readAllBytes(imgFile.toPath());
-                        out.writeInt(bytes.length);
-                        out.write(bytes);
-                    } else {
-                        out.writeInt(0);
-                    }
+                        markLiveViewDirty();
+                    });
                 }
+            } finally {
+                ExecutionMode.awaitAll(voters);
             }
-        } else {
-            out.writeUTF("WAIT|Tidak ada sesi voting aktif.");
-        }
-    }
 
-    private void broadcastUpdate() {
-        synchronized (activeClientStreams) {
-            for (DataOutputStream out : activeClientStreams) {
-                try {
-                    for (VotingSession vs : activeSessions) {
-                        out.writeUTF("REFRESH_STATS|" + vs.getTitle() + "|" + vs.getVoteSummary());
-                    }
-                } catch (IOException e) {
-                }
-            }
-        }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("⚡ STRESS TEST: " + voteCount + " voter (" + mode + ") selesai dalam "
+                    + elapsedMs + " ms");
+            markLiveViewDirty();
+        }, "stress-test").start();
     }
 
     private void addCandidateRow() {
@@ -862,7 +756,7 @@ public class ServerAdmin extends JFrame {
             btnEdit.addActionListener(e -> {
                 String newName = JOptionPane.showInputDialog(dialog, "Ganti nama:", name);
                 if (newName != null && !newName.trim().isEmpty() && !newName.equals(name)) {
-                    if (viewedSession.updateCandidateName(name, newName)) {
+                    if (server.renameCandidate(viewedSession, name, newName)) {
                         dialog.dispose();
                         openCandidateManager();
                         refreshMonitorUI();
@@ -878,7 +772,7 @@ public class ServerAdmin extends JFrame {
                 int confirm = JOptionPane.showConfirmDialog(dialog, "Hapus kandidat ini? Suara akan hilang!", "Hapus",
                         JOptionPane.YES_NO_OPTION);
                 if (confirm == JOptionPane.YES_OPTION) {
-                    viewedSession.removeCandidate(name);
+                    server.removeCandidate(viewedSession, name);
                     dialog.dispose();
                     openCandidateManager();
                     refreshMonitorUI();
@@ -902,7 +796,7 @@ public class ServerAdmin extends JFrame {
         btnAdd.addActionListener(e -> {
             String newName = JOptionPane.showInputDialog(dialog, "Nama Kandidat Baru:");
             if (newName != null && !newName.trim().isEmpty()) {
-                if (viewedSession.addCandidate(newName, "")) {
+                if (server.addCandidate(viewedSession, newName, "")) {
                     dialog.dispose();
                     openCandidateManager();
                     refreshMonitorUI();
@@ -916,6 +810,56 @@ public class ServerAdmin extends JFrame {
         dialog.setVisible(true);
     }
 
+    private class AdminListener implements VotingServerListener {
+
+        @Override
+        public void clientCountChanged(int connectedClients) {
+            markLiveViewDirty();
+        }
+
+        @Override
+        public void votesChanged(VotingSession session) {
+            if (session == viewedSession)
+                markLiveViewDirty();
+        }
+
+        @Override
+        public void candidatesChanged(VotingSession session) {
+            if (session == viewedSession)
+                markLiveViewDirty();
+        }
+
+        @Override
+        public void sessionClosed(VotingSession session, boolean saved) {
+            SwingUtilities.invokeLater(() -> {
+                updateDashboardTable();
+                updateHistoryTable();
+                JOptionPane.showMessageDialog(ServerAdmin.this, saved ? "Sesi Ditutup & Data Tersimpan!"
+                        : "Sesi ditutup, tetapi gagal disimpan ke database. Suara tetap ada di journal.");
+            });
+        }
+
+        @Override
+        public void historyLoaded() {
+            SwingUtilities.invokeLater(() -> updateHistoryTable());
+        }
+    }
+
+    private static class SessionChoice {
+        final long sessionId;
+        final String label;
+
+        SessionChoice(long sessionId, String label) {
+            this.sessionId = sessionId;
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
     private class CandidateInputRow {
         JPanel panel;
         JTextField txtName;
@@ -1005,67 +949,143 @@ public class ServerAdmin extends JFrame {
     }
 
     private class GraphPanel extends JPanel {
+        private static final int PADDING = 60;
+
+        private VotingSession.Tally tally;
+
+        private BufferedImage staticLayer;
+        private VotingSession.Tally layerTally;
+        private int layerWidth, layerHeight;
+        private double layerScale;
+        private Font layerFont;
+        private int[] barX = new int[0];
+        private int barWidth;
+        private final char[] digits = new char[20];
+
+        void showTally(VotingSession.Tally tally) {
+            this.tally = tally;
+            repaint();
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g;
+            VotingSession.Tally data = tally;
+
+            g2.drawImage(staticLayer(data, g2.getTransform().getScaleX()), 0, 0, getWidth(), getHeight(), null);
+            if (data != null) {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                drawBars(g2, data);
+            }
+        }
+
+        private BufferedImage staticLayer(VotingSession.Tally data, double scale) {
+            int w = Math.max(1, getWidth());
+            int h = Math.max(1, getHeight());
+            boolean sameCandidates = data == null ? layerTally == null : data.hasSameCandidates(layerTally);
+            if (staticLayer != null && sameCandidates && w == layerWidth && h == layerHeight && scale == layerScale
+                    && getFont() == layerFont)
+                return staticLayer;
+
+            BufferedImage layer = new BufferedImage((int) Math.ceil(w * scale), (int) Math.ceil(h * scale),
+                    BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2 = layer.createGraphics();
+            g2.scale(scale, scale);
+            g2.setFont(getFont());
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
             g2.setColor(Color.WHITE);
-            g2.fillRoundRect(0, 0, getWidth(), getHeight(), 30, 30);
+            g2.fillRoundRect(0, 0, w, h, 30, 30);
             g2.setColor(new Color(0, 0, 0, 10));
-            g2.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 30, 30);
+            g2.drawRoundRect(0, 0, w - 1, h - 1, 30, 30);
 
-            if (viewedSession == null) {
+            if (data == null) {
                 g2.setColor(AppTheme.COLOR_TEXT_MUTED);
-                g2.drawString("Pilih sesi dari riwayat atau dashboard.", getWidth() / 2 - 100, getHeight() / 2);
-                return;
+                g2.drawString("Pilih sesi dari riwayat atau dashboard.", w / 2 - 100, h / 2);
+                barX = new int[0];
+            } else {
+                int numCandidates = data.size();
+                barWidth = Math.max(1, Math.min(100, (w - (PADDING * 2)) / Math.max(1, numCandidates) - 20));
+                barX = new int[numCandidates];
+                int groundY = h - PADDING;
+                FontMetrics fm = g2.getFontMetrics();
+                g2.setColor(AppTheme.COLOR_TEXT_MUTED);
+
+                int x = PADDING;
+                for (int i = 0; i < numCandidates; i++) {
+                    barX[i] = x;
+                    String cand = data.getName(i);
+                    String display = cand.length() > 10 ? cand.substring(0, 8) + ".." : cand;
+                    g2.drawString(display, x + barWidth / 2 - fm.stringWidth(display) / 2, groundY + 25);
+                    x += barWidth + 30;
+                }
             }
-            drawChart(g2);
+            g2.dispose();
+
+            staticLayer = layer;
+            layerTally = data;
+            layerWidth = w;
+            layerHeight = h;
+            layerScale = scale;
+            layerFont = getFont();
+            return layer;
         }
 
-        private void drawChart(Graphics2D g2) {
-            int w = getWidth();
+        private void drawBars(Graphics2D g2, VotingSession.Tally data) {
             int h = getHeight();
-            int padding = 60;
-
-            int maxVotes = 1;
-            for (int val : viewedSession.getAllData().values())
-                maxVotes = Math.max(maxVotes, val);
-
-            java.util.Set<String> cands = viewedSession.getCandidates();
-            int numCandidates = cands.size();
-            int barWidth = Math.min(100, (w - (padding * 2)) / Math.max(1, numCandidates) - 20);
-            int x = padding;
-            int groundY = h - padding;
-
-            for (String cand : cands) {
-                int votes = viewedSession.getVoteCount(cand);
-                int barHeight = (int) (((double) votes / maxVotes) * (h - padding * 3));
-                if (votes == 0)
-                    barHeight = 4;
-
-                int y = groundY - barHeight;
-                g2.setColor(AppTheme.COLOR_PRIMARY_START);
-                g2.fillRoundRect(x, y, barWidth, barHeight, 15, 15);
+            int groundY = h - PADDING;
+            int chartHeight = h - PADDING * 3;
+            int n = Math.min(data.size(), barX.length);
+
+            long maxVotes = 1;
+            for (int i = 0; i < n; i++)
+                maxVotes = Math.max(maxVotes, data.getCount(i));
+
+            g2.setColor(AppTheme.COLOR_PRIMARY_START);
+            for (int i = 0; i < n; i++) {
+                int barHeight = barHeight(data.getCount(i), maxVotes, chartHeight);
+                g2.fillRoundRect(barX[i], groundY - barHeight, barWidth, barHeight, 15, 15);
+            }
 
-                g2.setColor(AppTheme.COLOR_TEXT_MAIN);
-                g2.drawString(String.valueOf(votes), x + barWidth / 2 - 5, y - 10);
+            g2.setColor(AppTheme.COLOR_TEXT_MAIN);
+            for (int i = 0; i < n; i++) {
+                long votes = data.getCount(i);
+                int start = formatDigits(votes);
+                g2.drawChars(digits, start, digits.length - start, barX[i] + barWidth / 2 - 5,
+                        groundY - barHeight(votes, maxVotes, chartHeight) - 10);
+            }
+        }
 
-                String display = cand.length() > 10 ? cand.substring(0, 8) + ".." : cand;
-                g2.setColor(AppTheme.COLOR_TEXT_MUTED);
-                g2.drawString(display, x + barWidth / 2 - g2.getFontMetrics().stringWidth(display) / 2, groundY + 25);
+        private int barHeight(long votes, long maxVotes, int chartHeight) {
+            return votes == 0 ? 4 : (int) (((double) votes / maxVotes) * chartHeight);
+        }
 
-                x += barWidth + 30;
-            }
+        private int formatDigits(long value) {
+            int pos = digits.length;
+            do {
+                digits[--pos] = (char) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            return pos;
         }
     }
 
     public static void main(String[] args) {
+        String engine = System.getProperty("evoting.engine", "nio");
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                engine = arg.substring("--engine=".length());
+            }
+        }
+        engine = VotingServer.normalizeEngine(engine);
+
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
         }
-        SwingUtilities.invokeLater(() -> new ServerAdmin().setVisible(true));
+        String selectedEngine = engine;
+        SwingUtilities.invokeLater(() -> new ServerAdmin(selectedEngine).setVisible(true));
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+import java.io.IOException;
+
+public interface ServerEngine {
+
+    void run() throws IOException;
+
+    void stop();
+}
@@ -0,0 +1,61 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class SessionRegistry {
+
+    private final Map<Long, VotingSession> byId = new ConcurrentHashMap<>();
+    private final Map<String, VotingSession> activeByTitle = new ConcurrentHashMap<>();
+    private final List<VotingSession> active = new CopyOnWriteArrayList<>();
+    private final List<VotingSession> history = new CopyOnWriteArrayList<>();
+
+    public boolean open(VotingSession session) {
+        if (activeByTitle.putIfAbsent(session.getTitle(), session) != null)
+            return false;
+        byId.put(session.getSessionId(), session);
+        active.add(session);
+        history.add(session);
+        return true;
+    }
+
+    public boolean close(VotingSession session) {
+        if (!active.remove(session))
+            return false;
+        activeByTitle.remove(session.getTitle(), session);
+        return true;
+    }
+
+    public void prependArchived(List<VotingSession> olderFirst) {
+        for (VotingSession vs : olderFirst) {
+            byId.put(vs.getSessionId(), vs);
+        }
+        history.addAll(0, olderFirst);
+    }
+
+    public void clearArchived() {
+        for (VotingSession vs : history) {
+            if (!active.contains(vs)) {
+                byId.remove(vs.getSessionId());
+                history.remove(vs);
+            }
+        }
+    }
+
+    public VotingSession get(long sessionId) {
+        return byId.get(sessionId);
+    }
+
+    public VotingSession findActive(String title) {
+        return title == null ? null : activeByTitle.get(title);
+    }
+
+    public List<VotingSession> activeSessions() {
+        return Collections.unmodifiableList(active);
+    }
+
+    public List<VotingSession> historySessions() {
+        return Collections.unmodifiableList(history);
+    }
+}
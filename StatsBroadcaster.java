@@ -0,0 +1,154 @@
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class StatsBroadcaster {
+
+    private final long intervalMs;
+    private final Collection<ClientConnection> clients;
+    private final Set<VotingSession> dirtySessions = ConcurrentHashMap.newKeySet();
+    private final Map<VotingSession, BroadcastState> lastBroadcast = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService ticker;
+
+    public StatsBroadcaster(long intervalMs, Collection<ClientConnection> clients) {
+        this.intervalMs = Math.max(1, intervalMs);
+        this.clients = clients;
+    }
+
+    public static long defaultIntervalMs() {
+        return Long.getLong("evoting.broadcastMs", 100L);
+    }
+
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stats-broadcaster");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (ticker != null)
+            ticker.shutdownNow();
+    }
+
+    public void markDirty(VotingSession session) {
+        dirtySessions.add(session);
+    }
+
+    public void forget(VotingSession session) {
+        dirtySessions.remove(session);
+        lastBroadcast.remove(session);
+    }
+
+    public void sendFullStats(ClientConnection conn, VotingSession session) {
+        BroadcastState state = lastBroadcast.get(session);
+        if (state != null) {
+            byte[] full = ClientContext.of(conn).isBinary() ? state.fullBinary : state.fullText;
+            conn.send(full, state.coalesceKey);
+        } else {
+            markDirty(session);
+        }
+    }
+
+    private void flush() {
+        if (dirtySessions.isEmpty())
+            return;
+
+        try {
+            Iterator<VotingSession> it = dirtySessions.iterator();
+            while (it.hasNext()) {
+                VotingSession vs = it.next();
+                it.remove();
+                broadcast(vs);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Gagal broadcast statistik: " + e.getMessage());
+        }
+    }
+
+    private void broadcast(VotingSession vs) {
+        VotingSession.Summary snapshot = vs.getSummary();
+        VotingSession.Tally tally = snapshot.getTally();
+        BroadcastState previous = lastBroadcast.get(vs);
+        if (previous != null && previous.tally == tally)
+            return;
+        long version = previous == null ? 1 : previous.version + 1;
+        String key = "stats:" + vs.getTitle();
+
+        byte[] deltaText = null;
+        byte[] deltaBinary = null;
+        if (previous != null && tally.hasSameCandidates(previous.tally)) {
+            StringBuilder changes = new StringBuilder();
+            int changed = 0;
+            for (int i = 0; i < tally.size(); i++) {
+                if (tally.getCount(i) != previous.tally.getCount(i)) {
+                    if (changed++ > 0)
+                        changes.append(",");
+                    changes.append(i).append(":").append(tally.getCount(i));
+                }
+            }
+            if (changed == 0)
+                return;
+            deltaText = Protocol.encodeText("STATS_DELTA|" + vs.getTitle() + "|" + previous.version + "|"
+                    + version + "|" + changes);
+
+            Protocol.Writer w = new Protocol.Writer(Protocol.STATS_DELTA)
+                    .writeString(vs.getTitle()).writeVarint(previous.version).writeVarint(version)
+                    .writeVarint(changed);
+            for (int i = 0; i < tally.size(); i++) {
+                if (tally.getCount(i) != previous.tally.getCount(i)) {
+                    w.writeVarint(i).writeVarint(tally.getCount(i));
+                }
+            }
+            deltaBinary = w.toFrame();
+        }
+
+        byte[] counts = snapshot.countsBinary();
+        byte[] fullBinary = new Protocol.Writer(Protocol.REFRESH_STATS, 32 + counts.length)
+                .writeString(vs.getTitle()).writeVarint(version).writeRaw(counts).toFrame();
+        byte[] fullText = Protocol.encodeText("REFRESH_STATS|" + vs.getTitle() + "|" + snapshot.getVoteSummary()
+                + "|" + version);
+
+        lastBroadcast.put(vs, new BroadcastState(version, tally, fullText, fullBinary, key));
+
+        for (ClientConnection conn : clients) {
+            ClientContext ctx = ClientContext.of(conn);
+            if (ctx.isBinary()) {
+                if (deltaBinary != null) {
+                    conn.send(deltaBinary, key, fullBinary);
+                } else {
+                    conn.send(fullBinary, key);
+                }
+            } else if (deltaText != null && ctx.wantsDeltaStats()) {
+                conn.send(deltaText, key, fullText);
+            } else {
+                conn.send(fullText, key);
+            }
+        }
+    }
+
+    private static final class BroadcastState {
+        final long version;
+        final VotingSession.Tally tally;
+        final byte[] fullText;
+        final byte[] fullBinary;
+        final String coalesceKey;
+
+        BroadcastState(long version, VotingSession.Tally tally, byte[] fullText, byte[] fullBinary,
+                String coalesceKey) {
+            this.version = version;
+            this.tally = tally;
+            this.fullText = fullText;
+            this.fullBinary = fullBinary;
+            this.coalesceKey = coalesceKey;
+        }
+    }
+}
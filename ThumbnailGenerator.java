@@ -0,0 +1,103 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+public class ThumbnailGenerator {
+
+    public static final int LARGE = 150;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final Map<File, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private ThumbnailGenerator() {
+    }
+
+    public static String thumbnailFor(String originalPath, int size) {
+        if (originalPath == null || originalPath.isEmpty())
+            return "";
+        File original = new File(originalPath);
+        if (!original.isFile())
+            return "";
+
+        File thumb = fileFor(original, size);
+        if (thumb.isFile() && thumb.lastModified() >= original.lastModified())
+            return thumb.getAbsolutePath();
+
+        synchronized (LOCKS.computeIfAbsent(thumb, k -> new Object())) {
+            if (thumb.isFile() && thumb.lastModified() >= original.lastModified())
+                return thumb.getAbsolutePath();
+            try {
+                BufferedImage source = ImageIO.read(original);
+                if (source == null)
+                    return originalPath;
+                thumb.getParentFile().mkdirs();
+                writeJpeg(scale(source, size), thumb);
+                return thumb.getAbsolutePath();
+            } catch (IOException e) {
+                System.err.println("Gagal membuat thumbnail: " + originalPath);
+                return originalPath;
+            }
+        }
+    }
+
+    public static File existingThumbnail(String originalPath, int size) {
+        if (originalPath == null || originalPath.isEmpty())
+            return null;
+        File original = new File(originalPath);
+        File thumb = fileFor(original, size);
+        return thumb.isFile() && thumb.lastModified() >= original.lastModified() ? thumb : null;
+    }
+
+    private static File fileFor(File original, int size) {
+        String name = original.getName();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return new File(new File(original.getAbsoluteFile().getParentFile(), "thumbs"), base + "_" + size + ".jpg");
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage out = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = out.createGraphics();
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, size, size);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2.drawImage(source, 0, 0, size, size, null);
+        g2.dispose();
+        return out;
+    }
+
+    private static void writeJpeg(BufferedImage image, File target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext())
+            throw new IOException("Encoder JPEG tidak tersedia");
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+
+        File tmp = new File(target.getParentFile(), target.getName() + ".tmp");
+        tmp.delete();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        if (!tmp.renameTo(target)) {
+            target.delete();
+            if (!tmp.renameTo(target))
+                throw new IOException("Gagal menyimpan thumbnail " + target);
+        }
+    }
+}
@@ -0,0 +1,514 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+public class VoteJournal {
+
+    private static final byte OPEN = 1;
+    private static final byte VOTE = 2;
+    private static final byte CANDIDATE_ADDED = 3;
+    private static final byte CANDIDATE_RENAMED = 4;
+    private static final byte CANDIDATE_REMOVED = 5;
+    private static final byte CLOSE = 6;
+    private static final byte COUNTS = 7;
+
+    private static final int MAX_RECORD = 1024 * 1024;
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final CompletableFuture<Boolean> REJECTED = CompletableFuture.completedFuture(false);
+
+    private final File file;
+    private final boolean enabled;
+    private final boolean fsync;
+    private final long maxPendingBytes;
+
+    private final Map<VotingSession, Integer> keys = new ConcurrentHashMap<>();
+    private final AtomicInteger nextKey = new AtomicInteger(1);
+    private final Map<Integer, JournalSession> state = new LinkedHashMap<>();
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private volatile boolean writerParked;
+    private volatile boolean compactRequested;
+    private volatile IOException failure;
+    private volatile boolean running;
+
+    private FileChannel channel;
+    private long durableSize;
+    private volatile Thread writer;
+
+    public VoteJournal(File file, boolean enabled, boolean fsync, long maxPendingBytes) {
+        this.file = file;
+        this.enabled = enabled;
+        this.fsync = fsync;
+        this.maxPendingBytes = maxPendingBytes;
+    }
+
+    public static VoteJournal withDefaults() {
+        File dir = new File(System.getProperty("evoting.journal.dir", "journal"));
+        return new VoteJournal(new File(dir, "votes.log"),
+                Boolean.parseBoolean(System.getProperty("evoting.journal.enabled", "true")),
+                Boolean.parseBoolean(System.getProperty("evoting.journal.fsync", "true")),
+                Long.getLong("evoting.journal.maxPendingBytes", 32L * 1024 * 1024));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<VotingSession> recover() throws IOException {
+        List<VotingSession> recovered = new ArrayList<>();
+        if (!enabled)
+            return recovered;
+        if (file.isFile()) {
+            long valid = replay(Files.readAllBytes(file.toPath()));
+            if (valid < file.length()) {
+                System.err.println("⚠️ Journal terpotong di byte " + valid + ", sisa " + (file.length() - valid)
+                        + " byte dibuang.");
+            }
+        }
+
+        int maxKey = 0;
+        for (Map.Entry<Integer, JournalSession> entry : state.entrySet()) {
+            JournalSession js = entry.getValue();
+            String[] names = js.counts.keySet().toArray(new String[0]);
+            String[] images = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                images[i] = js.images.getOrDefault(names[i], "");
+            }
+
+            VotingSession vs = new VotingSession(js.title, names, images);
+            vs.overwriteStartTime(js.startTime);
+            for (Map.Entry<String, Long> count : js.counts.entrySet()) {
+                vs.setVoteCountManual(count.getKey(), count.getValue().intValue());
+            }
+            keys.put(vs, entry.getKey());
+            maxKey = Math.max(maxKey, entry.getKey());
+            recovered.add(vs);
+        }
+        nextKey.set(maxKey + 1);
+
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        writeSnapshot();
+        return recovered;
+    }
+
+    public void start() throws IOException {
+        if (!enabled)
+            return;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        durableSize = channel.size();
+        running = true;
+        Thread t = new Thread(this::writeLoop, "vote-journal");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread t = writer;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void sessionOpened(VotingSession vs) {
+        if (!enabled)
+            return;
+        int key = nextKey.getAndIncrement();
+        keys.put(vs, key);
+
+        Map<String, String> images = vs.getAllImages();
+        Protocol.Writer w = new Protocol.Writer(OPEN, 128 + images.size() * 64).writeVarint(key)
+                .writeString(vs.getTitle()).writeVarint(vs.getStartTime()).writeVarint(images.size());
+        for (Map.Entry<String, String> entry : images.entrySet()) {
+            w.writeString(entry.getKey()).writeString(entry.getValue() == null ? "" : entry.getValue());
+        }
+        if (running)
+            enqueue(new Entry(w.toFrame(), null));
+    }
+
+    public CompletableFuture<Boolean> vote(VotingSession vs, String candidate) {
+        return journal(vs, () -> vs.isActive() && !vs.isFromDatabase() && vs.getSnapshot().indexOf(candidate) >= 0,
+                () -> vs.addVote(candidate),
+                key -> new Protocol.Writer(VOTE, 16 + candidate.length() * 3).writeVarint(key).writeString(candidate));
+    }
+
+    public CompletableFuture<Boolean> addCandidate(VotingSession vs, String name, String imagePath) {
+        return journal(vs, () -> vs.getSnapshot().indexOf(name) < 0, () -> vs.addCandidate(name, imagePath),
+                key -> new Protocol.Writer(CANDIDATE_ADDED).writeVarint(key).writeString(name)
+                        .writeString(imagePath == null ? "" : imagePath));
+    }
+
+    public CompletableFuture<Boolean> renameCandidate(VotingSession vs, String oldName, String newName) {
+        return journal(vs, () -> vs.getSnapshot().indexOf(oldName) >= 0 && vs.getSnapshot().indexOf(newName) < 0,
+                () -> vs.updateCandidateName(oldName, newName),
+                key -> new Protocol.Writer(CANDIDATE_RENAMED).writeVarint(key).writeString(oldName)
+                        .writeString(newName));
+    }
+
+    public CompletableFuture<Boolean> removeCandidate(VotingSession vs, String name) {
+        return journal(vs, () -> vs.getSnapshot().indexOf(name) >= 0, () -> vs.removeCandidate(name),
+                key -> new Protocol.Writer(CANDIDATE_REMOVED).writeVarint(key).writeString(name));
+    }
+
+    public void sessionSaved(VotingSession vs) {
+        Integer key = keys.remove(vs);
+        if (key == null || !running)
+            return;
+        enqueue(new Entry(new Protocol.Writer(CLOSE).writeVarint(key).toFrame(), null));
+        compactRequested = true;
+        wakeWriter();
+    }
+
+    private CompletableFuture<Boolean> journal(VotingSession vs, BooleanSupplier valid, BooleanSupplier change,
+            IntFunction<Protocol.Writer> record) {
+        if (!valid.getAsBoolean())
+            return REJECTED;
+        Integer key = keys.get(vs);
+        if (key == null) {
+            if (enabled && vs.isActive())
+                return CompletableFuture.failedFuture(new IOException("sesi belum tercatat di journal"));
+            return CompletableFuture.completedFuture(change.getAsBoolean());
+        }
+        if (!running)
+            return CompletableFuture.failedFuture(new IOException("journal vote tidak aktif"));
+        IOException error = failure;
+        if (error != null)
+            return CompletableFuture.failedFuture(error);
+        if (queuedBytes.get() >= maxPendingBytes)
+            return CompletableFuture.failedFuture(new IOException("antrian journal vote penuh"));
+
+        Entry entry = new Entry(record.apply(key).toFrame(), change);
+        enqueue(entry);
+        return entry.done;
+    }
+
+    private void enqueue(Entry entry) {
+        queuedBytes.addAndGet(entry.frame.length + 4);
+        queue.offer(entry);
+        wakeWriter();
+    }
+
+    private void wakeWriter() {
+        if (writerParked)
+            LockSupport.unpark(writer);
+    }
+
+    private void writeLoop() {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(64 * 1024);
+        List<Entry> entries = new ArrayList<>();
+        while (true) {
+            if (compactRequested) {
+                compactRequested = false;
+                compact();
+            }
+
+            Entry entry = queue.poll();
+            if (entry == null) {
+                if (!running)
+                    break;
+                writerParked = true;
+                if (running && !compactRequested && queue.isEmpty())
+                    LockSupport.park(this);
+                writerParked = false;
+                continue;
+            }
+
+            long size = 0;
+            do {
+                writeRecord(batch, entry.frame);
+                entries.add(entry);
+                size += entry.frame.length + 4;
+            } while ((entry = queue.poll()) != null);
+            queuedBytes.addAndGet(-size);
+
+            byte[] bytes = batch.toByteArray();
+            batch.reset();
+            IOException error = failure != null ? failure : writeBatch(bytes);
+            if (error == null) {
+                replay(bytes);
+            } else {
+                fail(error);
+            }
+            for (Entry e : entries) {
+                e.complete(error);
+            }
+            entries.clear();
+        }
+
+        IOException stopped = new IOException("journal vote tidak aktif");
+        for (Entry e; (e = queue.poll()) != null;) {
+            e.complete(stopped);
+        }
+        try {
+            if (channel != null)
+                channel.close();
+        } catch (IOException e) {
+        }
+    }
+
+    private void compact() {
+        if (!channel.isOpen())
+            return;
+        try {
+            channel.close();
+            writeSnapshot();
+        } catch (IOException e) {
+            System.err.println("⚠️ Gagal memadatkan journal vote: " + e.getMessage());
+        }
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            durableSize = channel.size();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private IOException writeBatch(byte[] bytes) {
+        IOException last = null;
+        for (int attempt = 1; attempt <= WRITE_ATTEMPTS; attempt++) {
+            try {
+                if (channel.size() != durableSize)
+                    channel.truncate(durableSize);
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                if (fsync)
+                    channel.force(false);
+                durableSize += bytes.length;
+                return null;
+            } catch (IOException e) {
+                last = e;
+                System.err.println("⚠️ Gagal menulis journal vote (percobaan " + attempt + "/" + WRITE_ATTEMPTS
+                        + "): " + e.getMessage());
+                sleepQuietly(100L << attempt);
+            }
+        }
+        try {
+            channel.truncate(durableSize);
+        } catch (IOException e) {
+        }
+        return last;
+    }
+
+    private void fail(IOException error) {
+        if (failure == null) {
+            failure = error;
+            System.err.println("❌ JOURNAL VOTE GAGAL: " + error.getMessage()
+                    + ". Suara dan perubahan kandidat baru ditolak sampai server dimulai ulang.");
+        }
+    }
+
+    private long replay(byte[] data) {
+        int pos = 0;
+        int[] headerLength = new int[1];
+        while (pos < data.length) {
+            ByteBuffer view = ByteBuffer.wrap(data, pos, data.length - pos);
+            int length = Protocol.peekFrameHeader(view, headerLength);
+            if (length < 0 || length > MAX_RECORD)
+                return pos;
+            int frameEnd = pos + headerLength[0] + length;
+            if (frameEnd + 4 > data.length)
+                return pos;
+
+            CRC32 crc = new CRC32();
+            crc.update(data, pos, frameEnd - pos);
+            long stored = ((data[frameEnd] & 0xFFL) << 24) | ((data[frameEnd + 1] & 0xFFL) << 16)
+                    | ((data[frameEnd + 2] & 0xFFL) << 8) | (data[frameEnd + 3] & 0xFFL);
+            if (stored != crc.getValue())
+                return pos;
+
+            byte[] body = new byte[length];
+            System.arraycopy(data, pos + headerLength[0], body, 0, length);
+            try {
+                apply(new Protocol.Reader(body));
+            } catch (IOException e) {
+                return pos;
+            }
+            pos = frameEnd + 4;
+        }
+        return pos;
+    }
+
+    private void apply(Protocol.Reader r) throws IOException {
+        byte type = r.type();
+        r.skipType();
+        int key = (int) r.readVarint();
+
+        if (type == OPEN) {
+            JournalSession js = new JournalSession(r.readString(), r.readVarint());
+            int n = r.readCount();
+            for (int i = 0; i < n; i++) {
+                String name = r.readString();
+                js.counts.put(name, 0L);
+                js.images.put(name, r.readString());
+            }
+            state.put(key, js);
+            return;
+        }
+
+        JournalSession js = state.get(key);
+        if (js == null)
+            return;
+
+        switch (type) {
+            case VOTE:
+                js.counts.computeIfPresent(r.readString(), (k, v) -> v + 1);
+                break;
+            case CANDIDATE_ADDED: {
+                String name = r.readString();
+                String image = r.readString();
+                if (js.counts.putIfAbsent(name, 0L) == null)
+                    js.images.put(name, image);
+                break;
+            }
+            case CANDIDATE_RENAMED: {
+                String oldName = r.readString();
+                String newName = r.readString();
+                if (js.counts.containsKey(oldName) && !js.counts.containsKey(newName)) {
+                    Map<String, Long> renamed = new LinkedHashMap<>();
+                    for (Map.Entry<String, Long> entry : js.counts.entrySet()) {
+                        renamed.put(entry.getKey().equals(oldName) ? newName : entry.getKey(), entry.getValue());
+                    }
+                    js.counts = renamed;
+                    js.images.put(newName, js.images.remove(oldName));
+                }
+                break;
+            }
+            case CANDIDATE_REMOVED: {
+                String name = r.readString();
+                js.counts.remove(name);
+                js.images.remove(name);
+                break;
+            }
+            case COUNTS: {
+                int n = r.readCount();
+                for (int i = 0; i < n; i++) {
+                    String name = r.readString();
+                    long count = r.readVarint();
+                    js.counts.computeIfPresent(name, (k, v) -> count);
+                }
+                break;
+            }
+            case CLOSE:
+                state.remove(key);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Map.Entry<Integer, JournalSession> entry : state.entrySet()) {
+            JournalSession js = entry.getValue();
+            Protocol.Writer open = new Protocol.Writer(OPEN).writeVarint(entry.getKey()).writeString(js.title)
+                    .writeVarint(js.startTime).writeVarint(js.counts.size());
+            Protocol.Writer counts = new Protocol.Writer(COUNTS).writeVarint(entry.getKey())
+                    .writeVarint(js.counts.size());
+            for (Map.Entry<String, Long> count : js.counts.entrySet()) {
+                open.writeString(count.getKey()).writeString(js.images.getOrDefault(count.getKey(), ""));
+                counts.writeString(count.getKey()).writeVarint(count.getValue());
+            }
+            writeRecord(out, open.toFrame());
+            writeRecord(out, counts.toFrame());
+        }
+
+        File tmp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".compact");
+        try (FileChannel ch = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(out.toByteArray());
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("🗜️ Journal dipadatkan: " + state.size() + " sesi aktif, " + out.size() + " byte.");
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, byte[] frame) {
+        CRC32 crc = new CRC32();
+        crc.update(frame);
+        long checksum = crc.getValue();
+        out.write(frame, 0, frame.length);
+        out.write((int) (checksum >>> 24));
+        out.write((int) (checksum >>> 16));
+        out.write((int) (checksum >>> 8));
+        out.write((int) checksum);
+    }
+
+    private static void sleepQuietly(long ms) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Entry {
+        final byte[] frame;
+        final BooleanSupplier change;
+        final CompletableFuture<Boolean> done;
+
+        Entry(byte[] frame, BooleanSupplier change) {
+            this.frame = frame;
+            this.change = change;
+            this.done = change == null ? null : new CompletableFuture<>();
+        }
+
+        void complete(IOException error) {
+            if (done == null)
+                return;
+            if (error != null) {
+                done.completeExceptionally(error);
+                return;
+            }
+            try {
+                done.complete(change.getAsBoolean());
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class JournalSession {
+        final String title;
+        final long startTime;
+        Map<String, Long> counts = new LinkedHashMap<>();
+        final Map<String, String> images = new LinkedHashMap<>();
+
+        JournalSession(String title, long startTime) {
+            this.title = title;
+            this.startTime = startTime;
+        }
+    }
+}
@@ -2,31 +2,44 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
-import java.io.*;
-import java.net.Socket;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 
 public class VoterClient extends JFrame {
 
-    private Socket socket;
-    private DataOutputStream out;
-    private DataInputStream in;
+    private VotingClient client;
+
+    private static final int PHOTO_SIZE = 150;
+    private static final int HISTORY_PAGE_SIZE = 30;
+    private static final int VOTE_TIMEOUT_MS = Integer.getInteger("evoting.client.voteTimeoutMs", 10_000);
 
     private String voterNIK = "Guest";
     private boolean isLoggedIn = true;
 
-    private List<SessionInfo> sessionList = new ArrayList<>();
+    private List<SessionInfo> sessionList = new CopyOnWriteArrayList<>();
 
     private Map<String, List<String>> sessionCandidates = new HashMap<>();
     private Map<String, Map<String, ImageIcon>> sessionPhotos = new HashMap<>();
+    private Map<String, Map<String, String>> sessionImageHashes = new HashMap<>();
+    private Map<String, List<JLabel>> pendingPhotoLabels = new HashMap<>();
+
+    private final ImageCache imageCache = ImageCache.inUserHome();
+    private final ExecutorService imageLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "image-loader");
+        t.setDaemon(true);
+        return t;
+    });
 
     private Set<String> votedSessions = new HashSet<>();
 
@@ -176,6 +189,12 @@ public class VoterClient extends JFrame {
         scrollPane.setOpaque(false);
         scrollPane.getViewport().setOpaque(false);
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - 200) {
+                requestMoreHistory();
+            }
+        });
 
         panel.add(scrollPane, BorderLayout.CENTER);
         return panel;
@@ -259,18 +278,25 @@ public class VoterClient extends JFrame {
     }
 
     private void showDetailStats(SessionInfo session) {
-        String rawData = session.voteSummary;
-        String[] rows = rawData.split(",");
-
-        String[][] data = new String[rows.length][2];
-        for (int i = 0; i < rows.length; i++) {
-            String[] parts = rows[i].split(":");
-            if (parts.length == 2) {
-                data[i][0] = parts[0];
-                data[i][1] = parts[1] + " Suara";
-            } else {
-                data[i][0] = rows[i];
-                data[i][1] = "-";
+        String[][] data;
+        if (session.statNames != null) {
+            data = new String[session.statNames.length][2];
+            for (int i = 0; i < session.statNames.length; i++) {
+                data[i][0] = session.statNames[i];
+                data[i][1] = session.statCounts[i] + " Suara";
+            }
+        } else {
+            String[] rows = session.voteSummary.split(",");
+            data = new String[rows.length][2];
+            for (int i = 0; i < rows.length; i++) {
+                String[] parts = rows[i].split(":");
+                if (parts.length == 2) {
+                    data[i][0] = parts[0];
+                    data[i][1] = parts[1] + " Suara";
+                } else {
+                    data[i][0] = rows[i];
+                    data[i][1] = "-";
+                }
             }
         }
 
@@ -437,6 +463,12 @@ public class VoterClient extends JFrame {
                 lblImage.setText("👤");
                 lblImage.setFont(new Font("Segoe UI Emoji", Font.PLAIN, 80));
                 lblImage.setHorizontalAlignment(SwingConstants.CENTER);
+
+                Map<String, String> hashes = sessionImageHashes.get(sessionTitle);
+                String hash = hashes == null ? null : hashes.get(name);
+                if (hash != null && !hash.isEmpty()) {
+                    pendingPhotoLabels.computeIfAbsent(hash, k -> new ArrayList<>()).add(lblImage);
+                }
             }
 
             JLabel lblName = new JLabel(name);
@@ -446,7 +478,7 @@ public class VoterClient extends JFrame {
 
             JButton btnVote = AppTheme.createGradientButton("PILIH", 180, 45);
             btnVote.setAlignmentX(Component.CENTER_ALIGNMENT);
-            btnVote.addActionListener(e -> submitVote(sessionTitle, name));
+            btnVote.addActionListener(e -> submitVote(sessionTitle, name, btnVote));
 
             add(Box.createVerticalStrut(25));
             add(lblImage);
@@ -507,30 +539,26 @@ public class VoterClient extends JFrame {
 
     private void connectAndSetup() {
         try {
-            socket = new Socket(AppTheme.SERVER_HOST, AppTheme.SERVER_PORT);
-            out = new DataOutputStream(socket.getOutputStream());
-            in = new DataInputStream(socket.getInputStream());
+            client = new VotingClient(AppTheme.SERVER_HOST, AppTheme.SERVER_PORT, new ClientListener());
+            VotingClient.Greeting greeting = client.connect();
 
-            String historyMsg = in.readUTF();
-            if (historyMsg.startsWith("HISTORY_LIST|")) {
-                parseHistoryList(historyMsg);
+            sessionList.clear();
+            for (VotingClient.HistoryEntry entry : greeting.history) {
+                sessionList.add(toSessionInfo(entry));
             }
-
-            String header = in.readUTF();
-
-            if (header.startsWith("MULTI_SETUP")) {
-                int sessionCount = Integer.parseInt(header.split("\\|")[1]);
-                for (int i = 0; i < sessionCount; i++) {
-                    handleSetupMulti();
+            for (VotingClient.ActiveSession session : greeting.activeSessions) {
+                Map<String, ImageIcon> photos = new HashMap<>();
+                for (Map.Entry<String, byte[]> photo : session.photos.entrySet()) {
+                    photos.put(photo.getKey(), toPhoto(photo.getValue()));
                 }
-            } else if (header.startsWith("WAIT")) {
-                sessionCandidates.clear();
-                sessionPhotos.clear();
+                sessionImageHashes.put(session.title, session.imageHashes);
+                registerActiveSession(session.title, session.candidates, photos);
             }
 
             SwingUtilities.invokeLater(this::refreshGalleryUI);
 
-            new Thread(this::listenForUpdates).start();
+            new Thread(client::listen).start();
+            loadMissingPhotos();
 
         } catch (Exception e) {
             SwingUtilities
@@ -539,28 +567,66 @@ public class VoterClient extends JFrame {
         }
     }
 
-    private void handleSetupMulti() throws IOException {
-        String title = in.readUTF();
-        int candidateCount = in.readInt();
+    private SessionInfo toSessionInfo(VotingClient.HistoryEntry entry) {
+        SessionInfo si = new SessionInfo(entry.title, entry.active, entry.winner, entry.voteSummary);
+        si.dbId = entry.dbId;
+        if (entry.names != null)
+            si.setStats(entry.names, entry.counts, -1);
+        return si;
+    }
+
+    private void requestMoreHistory() {
+        if (client != null)
+            client.requestMoreHistory(HISTORY_PAGE_SIZE);
+    }
 
-        List<String> cands = new ArrayList<>();
-        Map<String, ImageIcon> photos = new HashMap<>();
+    private void loadMissingPhotos() {
+        Set<String> wanted = new HashSet<>();
+        for (Map<String, String> hashes : sessionImageHashes.values()) {
+            for (String hash : hashes.values()) {
+                if (!hash.isEmpty())
+                    wanted.add(hash);
+            }
+        }
 
-        for (int i = 0; i < candidateCount; i++) {
-            String name = in.readUTF();
-            int imgSize = in.readInt();
+        for (String hash : wanted) {
+            imageLoader.execute(() -> {
+                byte[] bytes = imageCache.get(hash);
+                if (bytes != null) {
+                    applyPhoto(hash, bytes);
+                    return;
+                }
+                try {
+                    client.requestImage(hash);
+                } catch (IOException e) {
+                }
+            });
+        }
+    }
 
-            cands.add(name);
+    private void applyPhoto(String hash, byte[] bytes) {
+        ImageIcon icon = toPhoto(bytes);
+        SwingUtilities.invokeLater(() -> {
+            for (Map.Entry<String, Map<String, String>> session : sessionImageHashes.entrySet()) {
+                for (Map.Entry<String, String> candidate : session.getValue().entrySet()) {
+                    if (hash.equals(candidate.getValue())) {
+                        sessionPhotos.computeIfAbsent(session.getKey(), k -> new HashMap<>())
+                                .put(candidate.getKey(), icon);
+                    }
+                }
+            }
 
-            if (imgSize > 0) {
-                byte[] imgBytes = new byte[imgSize];
-                in.readFully(imgBytes);
-                ImageIcon originalIcon = new ImageIcon(imgBytes);
-                ImageIcon scaledIcon = scaleImage(originalIcon, 150, 150);
-                photos.put(name, scaledIcon);
+            List<JLabel> labels = pendingPhotoLabels.remove(hash);
+            if (labels != null) {
+                for (JLabel label : labels) {
+                    label.setText(null);
+                    label.setIcon(icon);
+                }
             }
-        }
+        });
+    }
 
+    private void registerActiveSession(String title, List<String> cands, Map<String, ImageIcon> photos) {
         sessionCandidates.put(title, cands);
         sessionPhotos.put(title, photos);
 
@@ -579,6 +645,13 @@ public class VoterClient extends JFrame {
         }
     }
 
+    private ImageIcon toPhoto(byte[] bytes) {
+        ImageIcon icon = new ImageIcon(bytes);
+        if (icon.getIconWidth() == PHOTO_SIZE && icon.getIconHeight() == PHOTO_SIZE)
+            return icon;
+        return scaleImage(icon, PHOTO_SIZE, PHOTO_SIZE);
+    }
+
     private ImageIcon scaleImage(ImageIcon icon, int w, int h) {
         if (icon == null)
             return null;
@@ -591,23 +664,6 @@ public class VoterClient extends JFrame {
         return new ImageIcon(bi);
     }
 
-    private void parseHistoryList(String msg) {
-        sessionList.clear();
-        String rawData = msg.substring(13);
-        if (rawData.isEmpty())
-            return;
-
-        String[] sessions = rawData.split("#");
-        for (String s : sessions) {
-            String[] props = s.split(";");
-            if (props.length >= 4) {
-                sessionList.add(new SessionInfo(props[0], Boolean.parseBoolean(props[1]), props[2], props[3]));
-            } else if (props.length >= 3) {
-                sessionList.add(new SessionInfo(props[0], Boolean.parseBoolean(props[1]), props[2], ""));
-            }
-        }
-    }
-
     private void refreshGalleryUI() {
         galleryContainer.removeAll();
         if (sessionList.isEmpty()) {
@@ -623,7 +679,7 @@ public class VoterClient extends JFrame {
         galleryContainer.repaint();
     }
 
-    private void submitVote(String sessionTitle, String candidateName) {
+    private void submitVote(String sessionTitle, String candidateName, JButton btnVote) {
         if (votedSessions.contains(sessionTitle)) {
             JOptionPane.showMessageDialog(this, "Anda sudah memilih!");
             return;
@@ -634,40 +690,119 @@ public class VoterClient extends JFrame {
             return;
 
         try {
-            out.writeUTF("VOTE|" + sessionTitle + "|" + candidateName);
-
             votedSessions.add(sessionTitle);
-            switchPage("PAGE_SUCCESS", btnNavGallery);
+            btnVote.setEnabled(false);
+            long requestId = client.submitVote(sessionTitle, candidateName);
+            if (requestId < 0) {
+                switchPage("PAGE_SUCCESS", btnNavGallery);
+                return;
+            }
+
+            Timer timeout = new Timer(VOTE_TIMEOUT_MS, e -> {
+                if (client.abandonVote(requestId)) {
+                    votedSessions.remove(sessionTitle);
+                    btnVote.setEnabled(true);
+                    JOptionPane.showMessageDialog(this, "Server tidak menjawab dalam " + VOTE_TIMEOUT_MS / 1000
+                            + " detik. Suara belum dipastikan tercatat, silakan coba lagi.");
+                }
+            });
+            timeout.setRepeats(false);
+            timeout.start();
         } catch (IOException e) {
-            e.printStackTrace();
+            votedSessions.remove(sessionTitle);
+            btnVote.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "Suara gagal dikirim: " + e.getMessage());
         }
     }
 
-    private void listenForUpdates() {
-        try {
-            while (true) {
-                String msg = in.readUTF();
-                if (msg.startsWith("REFRESH_STATS|")) {
-                    String[] parts = msg.split("\\|");
-                    if (parts.length >= 3) {
-                        String title = parts[1];
-                        String summary = parts[2];
-                        updateSessionStats(title, summary);
-                    }
-                } else if (msg.startsWith("MULTI_SETUP|")) {
+    private class ClientListener implements VotingClientListener {
+
+        @Override
+        public void statsRefreshed(String title, String[] names, long[] counts, long version) {
+            SessionInfo s = findSession(title);
+            if (s != null)
+                s.setStats(names, counts, version);
+        }
+
+        @Override
+        public void statsDelta(String title, long baseVersion, long version, int[] indices, long[] counts)
+                throws IOException {
+            applyStatsDelta(title, baseVersion, version, indices, counts);
+        }
+
+        @Override
+        public void historyPageReceived(List<VotingClient.HistoryEntry> page) {
+            SwingUtilities.invokeLater(() -> {
+                for (VotingClient.HistoryEntry entry : page) {
+                    if (entry.dbId < 0 || findArchivedSession(entry.dbId) == null)
+                        sessionList.add(toSessionInfo(entry));
                 }
+                refreshGalleryUI();
+            });
+        }
+
+        @Override
+        public void voteAcknowledged(long requestId, String title, String candidate, long roundTripNanos) {
+            SwingUtilities.invokeLater(() -> switchPage("PAGE_SUCCESS", btnNavGallery));
+        }
+
+        @Override
+        public void voteRejected(long requestId, String title, String candidate, String reason) {
+            SwingUtilities.invokeLater(() -> {
+                votedSessions.remove(title);
+                JOptionPane.showMessageDialog(VoterClient.this, "Suara ditolak server: " + reason);
+                refreshGalleryUI();
+                switchPage("PAGE_GALLERY", btnNavGallery);
+            });
+        }
+
+        @Override
+        public void imageReceived(String hash, byte[] bytes) {
+            imageLoader.execute(() -> {
+                imageCache.put(hash, bytes);
+                applyPhoto(hash, bytes);
+            });
+        }
+    }
+
+    private SessionInfo findSession(String title) {
+        for (SessionInfo s : sessionList) {
+            if (s.isActive && s.title.equals(title)) {
+                return s;
             }
-        } catch (IOException e) {
         }
+        return null;
     }
 
-    private void updateSessionStats(String title, String summary) {
+    private SessionInfo findArchivedSession(long dbId) {
         for (SessionInfo s : sessionList) {
-            if (s.title.equals(title)) {
-                s.voteSummary = summary;
-                break;
+            if (s.dbId == dbId) {
+                return s;
             }
         }
+        return null;
+    }
+
+    private void applyStatsDelta(String title, long baseVersion, long version, int[] indices, long[] counts)
+            throws IOException {
+        SessionInfo s = findSession(title);
+        if (s == null)
+            return;
+
+        if (s.statCounts == null || s.statsVersion != baseVersion) {
+            client.requestResync(title);
+            return;
+        }
+
+        long[] updated = s.statCounts.clone();
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0 || indices[i] >= updated.length) {
+                client.requestResync(title);
+                return;
+            }
+            updated[indices[i]] = counts[i];
+        }
+        s.setStats(s.statNames, updated, version);
     }
 
     private class SessionInfo {
@@ -675,6 +810,10 @@ public class VoterClient extends JFrame {
         boolean isActive;
         String winner;
         String voteSummary;
+        String[] statNames;
+        long[] statCounts;
+        long statsVersion = -1;
+        long dbId = -1;
 
         public SessionInfo(String t, boolean a, String w, String summary) {
             this.title = t;
@@ -682,6 +821,19 @@ public class VoterClient extends JFrame {
             this.winner = w;
             this.voteSummary = summary;
         }
+
+        void setStats(String[] names, long[] counts, long version) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < counts.length; i++) {
+                if (i > 0)
+                    sb.append(",");
+                sb.append(names[i]).append(":").append(counts[i]);
+            }
+            this.statNames = names;
+            this.statCounts = counts;
+            this.statsVersion = version;
+            this.voteSummary = sb.toString();
+        }
     }
 
     public static void main(String[] args) {
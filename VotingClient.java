@@ -0,0 +1,445 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class VotingClient {
+
+    private final String host;
+    private final int port;
+    private final VotingClientListener listener;
+
+    private Socket socket;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private boolean binaryProtocol;
+    private boolean imageRefs;
+    private boolean historyPaging;
+    private boolean voteAcks;
+    private boolean historyIds;
+
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final Map<Long, PendingVote> pendingVotes = new ConcurrentHashMap<>();
+
+    private volatile boolean historyHasMore;
+    private volatile long historyCursorTs;
+    private volatile long historyCursorId;
+    private final AtomicBoolean historyRequestPending = new AtomicBoolean(false);
+
+    public VotingClient(String host, int port, VotingClientListener listener) {
+        this.host = host;
+        this.port = port;
+        this.listener = listener;
+    }
+
+    public Greeting connect() throws IOException {
+        socket = new Socket(host, port);
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        sendMessage(Protocol.HELLO + Protocol.VERSION);
+
+        String firstMsg = in.readUTF();
+        if (firstMsg.startsWith(Protocol.HELLO_OK)) {
+            binaryProtocol = true;
+            int serverVersion = Integer.parseInt(firstMsg.substring(Protocol.HELLO_OK.length()).trim());
+            imageRefs = serverVersion >= Protocol.MIN_IMAGE_REF_VERSION;
+            historyPaging = serverVersion >= Protocol.MIN_HISTORY_PAGING_VERSION;
+            voteAcks = serverVersion >= Protocol.MIN_VOTE_ACK_VERSION;
+            historyIds = serverVersion >= Protocol.MIN_HISTORY_ID_VERSION;
+            return readBinaryGreeting();
+        }
+        sendMessage("STATS_DELTA_ON");
+        return readTextGreeting(firstMsg);
+    }
+
+    public boolean isBinaryProtocol() {
+        return binaryProtocol;
+    }
+
+    public boolean supportsVoteAck() {
+        return voteAcks;
+    }
+
+    public int getPendingVotes() {
+        return pendingVotes.size();
+    }
+
+    public boolean abandonVote(long requestId) {
+        return pendingVotes.remove(requestId) != null;
+    }
+
+    public void setReadTimeout(int millis) throws IOException {
+        socket.setSoTimeout(millis);
+    }
+
+    public void close() {
+        try {
+            if (socket != null)
+                socket.close();
+        } catch (IOException e) {
+        }
+    }
+
+    private Greeting readTextGreeting(String historyMsg) throws IOException {
+        Greeting greeting = new Greeting();
+        if (historyMsg.startsWith("HISTORY_LIST|")) {
+            parseHistoryList(historyMsg, greeting.history);
+        }
+
+        String header = in.readUTF();
+        if (header.startsWith("MULTI_SETUP")) {
+            int sessionCount = Integer.parseInt(header.split("\\|")[1]);
+            for (int i = 0; i < sessionCount; i++) {
+                greeting.activeSessions.add(handleSetupMulti());
+            }
+        }
+        return greeting;
+    }
+
+    private Greeting readBinaryGreeting() throws IOException {
+        Greeting greeting = new Greeting();
+        Protocol.Reader history = new Protocol.Reader(Protocol.readFrame(in, Integer.MAX_VALUE));
+        if (history.type() == Protocol.HISTORY_LIST) {
+            history.skipType();
+            greeting.history.addAll(readHistoryEntries(history));
+            if (historyPaging) {
+                historyHasMore = history.readBoolean();
+                historyCursorTs = history.readVarint();
+                historyCursorId = history.readVarint();
+            }
+        }
+
+        Protocol.Reader setup = new Protocol.Reader(Protocol.readFrame(in, Integer.MAX_VALUE));
+        if (setup.type() == Protocol.MULTI_SETUP) {
+            setup.skipType();
+            int sessionCount = setup.readCount();
+            for (int i = 0; i < sessionCount; i++) {
+                ActiveSession session = new ActiveSession(setup.readString());
+                int candidateCount = setup.readCount();
+                for (int c = 0; c < candidateCount; c++) {
+                    String name = setup.readString();
+                    session.candidates.add(name);
+                    if (imageRefs) {
+                        session.imageHashes.put(name, setup.readString());
+                        continue;
+                    }
+                    byte[] imgBytes = setup.readBytes();
+                    if (imgBytes.length > 0) {
+                        session.photos.put(name, imgBytes);
+                    }
+                }
+                greeting.activeSessions.add(session);
+            }
+        }
+        return greeting;
+    }
+
+    private List<HistoryEntry> readHistoryEntries(Protocol.Reader r) throws IOException {
+        int count = r.readCount();
+        List<HistoryEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long dbId = historyIds ? r.readVarint() - 1 : -1;
+            String title = r.readString();
+            boolean active = r.readBoolean();
+            String winner = r.readString();
+            int candidateCount = r.readCount();
+            String[] names = new String[candidateCount];
+            long[] counts = new long[candidateCount];
+            for (int c = 0; c < candidateCount; c++) {
+                names[c] = r.readString();
+                counts[c] = r.readVarint();
+            }
+            entries.add(new HistoryEntry(dbId, title, active, winner, "", names, counts));
+        }
+        return entries;
+    }
+
+    private ActiveSession handleSetupMulti() throws IOException {
+        ActiveSession session = new ActiveSession(in.readUTF());
+        int candidateCount = in.readInt();
+
+        for (int i = 0; i < candidateCount; i++) {
+            String name = in.readUTF();
+            int imgSize = in.readInt();
+
+            session.candidates.add(name);
+
+            if (imgSize > 0) {
+                byte[] imgBytes = new byte[imgSize];
+                in.readFully(imgBytes);
+                session.photos.put(name, imgBytes);
+            }
+        }
+        return session;
+    }
+
+    private static void parseHistoryList(String msg, List<HistoryEntry> entries) {
+        String rawData = msg.substring(13);
+        if (rawData.isEmpty())
+            return;
+
+        String[] sessions = rawData.split("#");
+        for (String s : sessions) {
+            String[] props = s.split(";");
+            if (props.length >= 3) {
+                entries.add(new HistoryEntry(-1, props[0], Boolean.parseBoolean(props[1]), props[2],
+                        props.length >= 4 ? props[3] : "", null, null));
+            }
+        }
+    }
+
+    public boolean requestMoreHistory(int pageSize) {
+        if (!historyPaging || !historyHasMore || !historyRequestPending.compareAndSet(false, true))
+            return false;
+        try {
+            sendFrame(new Protocol.Writer(Protocol.HISTORY_MORE).writeVarint(historyCursorTs)
+                    .writeVarint(historyCursorId).writeVarint(pageSize).toFrame());
+            return true;
+        } catch (IOException e) {
+            historyRequestPending.set(false);
+            return false;
+        }
+    }
+
+    public void requestImage(String hash) throws IOException {
+        sendFrame(new Protocol.Writer(Protocol.GET_IMAGE).writeString(hash).toFrame());
+    }
+
+    public long submitVote(String sessionTitle, String candidateName) throws IOException {
+        if (!voteAcks) {
+            if (binaryProtocol) {
+                sendFrame(new Protocol.Writer(Protocol.VOTE).writeString(sessionTitle).writeString(candidateName)
+                        .toFrame());
+            } else {
+                sendMessage("VOTE|" + sessionTitle + "|" + candidateName);
+            }
+            return -1;
+        }
+
+        long requestId = nextRequestId.incrementAndGet();
+        byte[] frame = new Protocol.Writer(Protocol.VOTE_REQUEST).writeVarint(requestId).writeString(sessionTitle)
+                .writeString(candidateName).toFrame();
+        pendingVotes.put(requestId, new PendingVote(sessionTitle, candidateName, System.nanoTime()));
+        try {
+            sendFrame(frame);
+        } catch (IOException e) {
+            pendingVotes.remove(requestId);
+            throw e;
+        }
+        return requestId;
+    }
+
+    public void requestResync(String title) throws IOException {
+        if (binaryProtocol) {
+            sendFrame(new Protocol.Writer(Protocol.RESYNC).writeString(title).toFrame());
+        } else {
+            sendMessage("RESYNC|" + title);
+        }
+    }
+
+    private void sendMessage(String msg) throws IOException {
+        synchronized (out) {
+            out.writeUTF(msg);
+            out.flush();
+        }
+    }
+
+    private void sendFrame(byte[] frame) throws IOException {
+        synchronized (out) {
+            out.write(frame);
+            out.flush();
+        }
+    }
+
+    public void listen() {
+        try {
+            while (true) {
+                readUpdate();
+            }
+        } catch (IOException e) {
+            listener.disconnected(e);
+        }
+    }
+
+    public boolean hasPendingInput() throws IOException {
+        return in.available() > 0;
+    }
+
+    public void readPendingUpdates() throws IOException {
+        while (in.available() > 0) {
+            readUpdate();
+        }
+    }
+
+    public void readUpdate() throws IOException {
+        if (binaryProtocol) {
+            handleBinaryUpdate(new Protocol.Reader(Protocol.readFrame(in, Integer.MAX_VALUE)));
+            return;
+        }
+
+        String msg = in.readUTF();
+        if (msg.startsWith("REFRESH_STATS|")) {
+            String[] parts = msg.split("\\|");
+            if (parts.length >= 3) {
+                long version = parts.length >= 4 ? Long.parseLong(parts[3]) : -1;
+                updateSessionStats(parts[1], parts[2], version);
+            }
+        } else if (msg.startsWith("STATS_DELTA|")) {
+            String[] parts = msg.split("\\|");
+            if (parts.length >= 5) {
+                String[] changes = parts[4].split(",");
+                int[] indices = new int[changes.length];
+                long[] counts = new long[changes.length];
+                for (int i = 0; i < changes.length; i++) {
+                    int sep = changes[i].indexOf(':');
+                    indices[i] = Integer.parseInt(changes[i].substring(0, sep));
+                    counts[i] = Long.parseLong(changes[i].substring(sep + 1));
+                }
+                listener.statsDelta(parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), indices, counts);
+            }
+        }
+    }
+
+    private void handleBinaryUpdate(Protocol.Reader r) throws IOException {
+        switch (r.type()) {
+            case Protocol.REFRESH_STATS: {
+                r.skipType();
+                String title = r.readString();
+                long version = r.readVarint();
+                int n = r.readCount();
+                String[] names = new String[n];
+                long[] counts = new long[n];
+                for (int i = 0; i < n; i++) {
+                    names[i] = r.readString();
+                    counts[i] = r.readVarint();
+                }
+                listener.statsRefreshed(title, names, counts, version);
+                break;
+            }
+            case Protocol.STATS_DELTA: {
+                r.skipType();
+                String title = r.readString();
+                long baseVersion = r.readVarint();
+                long version = r.readVarint();
+                int n = r.readCount();
+                int[] indices = new int[n];
+                long[] counts = new long[n];
+                for (int i = 0; i < n; i++) {
+                    indices[i] = (int) r.readVarint();
+                    counts[i] = r.readVarint();
+                }
+                listener.statsDelta(title, baseVersion, version, indices, counts);
+                break;
+            }
+            case Protocol.HISTORY_PAGE: {
+                r.skipType();
+                List<HistoryEntry> page = readHistoryEntries(r);
+                historyHasMore = r.readBoolean();
+                historyCursorTs = r.readVarint();
+                historyCursorId = r.readVarint();
+                historyRequestPending.set(false);
+                listener.historyPageReceived(page);
+                break;
+            }
+            case Protocol.VOTE_ACK: {
+                r.skipType();
+                long requestId = r.readVarint();
+                PendingVote vote = pendingVotes.remove(requestId);
+                if (vote != null) {
+                    listener.voteAcknowledged(requestId, vote.sessionTitle, vote.candidateName,
+                            System.nanoTime() - vote.sentNanos);
+                }
+                break;
+            }
+            case Protocol.VOTE_NACK: {
+                r.skipType();
+                long requestId = r.readVarint();
+                String reason = r.readString();
+                PendingVote vote = pendingVotes.remove(requestId);
+                if (vote != null)
+                    listener.voteRejected(requestId, vote.sessionTitle, vote.candidateName, reason);
+                break;
+            }
+            case Protocol.IMAGE: {
+                r.skipType();
+                String hash = r.readString();
+                byte[] bytes = r.readBytes();
+                if (bytes.length > 0)
+                    listener.imageReceived(hash, bytes);
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void updateSessionStats(String title, String summary, long version) {
+        String[] rows = summary.isEmpty() ? new String[0] : summary.split(",");
+        String[] names = new String[rows.length];
+        long[] counts = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int sep = rows[i].lastIndexOf(':');
+            names[i] = sep >= 0 ? rows[i].substring(0, sep) : rows[i];
+            counts[i] = sep >= 0 ? Long.parseLong(rows[i].substring(sep + 1)) : 0;
+        }
+        listener.statsRefreshed(title, names, counts, version);
+    }
+
+    private static final class PendingVote {
+        final String sessionTitle;
+        final String candidateName;
+        final long sentNanos;
+
+        PendingVote(String sessionTitle, String candidateName, long sentNanos) {
+            this.sessionTitle = sessionTitle;
+            this.candidateName = candidateName;
+            this.sentNanos = sentNanos;
+        }
+    }
+
+    public static final class Greeting {
+        final List<HistoryEntry> history = new ArrayList<>();
+        final List<ActiveSession> activeSessions = new ArrayList<>();
+    }
+
+    public static final class HistoryEntry {
+        final long dbId;
+        final String title;
+        final boolean active;
+        final String winner;
+        final String voteSummary;
+        final String[] names;
+        final long[] counts;
+
+        HistoryEntry(long dbId, String title, boolean active, String winner, String voteSummary, String[] names,
+                long[] counts) {
+            this.dbId = dbId;
+            this.title = title;
+            this.active = active;
+            this.winner = winner;
+            this.voteSummary = voteSummary;
+            this.names = names;
+            this.counts = counts;
+        }
+    }
+
+    public static final class ActiveSession {
+        final String title;
+        final List<String> candidates = new ArrayList<>();
+        final Map<String, String> imageHashes = new HashMap<>();
+        final Map<String, byte[]> photos = new HashMap<>();
+
+        ActiveSession(String title) {
+            this.title = title;
+        }
+    }
+}
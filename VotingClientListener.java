@@ -0,0 +1,27 @@
+import java.io.IOException;
+import java.util.List;
+
+public interface VotingClientListener {
+
+    default void statsRefreshed(String title, String[] names, long[] counts, long version) {
+    }
+
+    default void statsDelta(String title, long baseVersion, long version, int[] indices, long[] counts)
+            throws IOException {
+    }
+
+    default void historyPageReceived(List<VotingClient.HistoryEntry> page) {
+    }
+
+    default void imageReceived(String hash, byte[] bytes) {
+    }
+
+    default void voteAcknowledged(long requestId, String title, String candidate, long roundTripNanos) {
+    }
+
+    default void voteRejected(long requestId, String title, String candidate, String reason) {
+    }
+
+    default void disconnected(IOException cause) {
+    }
+}
@@ -0,0 +1,695 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class VotingServer {
+
+    private static final int HISTORY_PAGE_SIZE = Integer.getInteger("evoting.history.pageSize", 50);
+    private static final int HANDSHAKE_HISTORY = Integer.getInteger("evoting.history.handshakeSize", 20);
+    private static final long HELLO_GRACE_MS = Long.getLong("evoting.helloGraceMs", 250L);
+
+    private final String engineType;
+    private final ExecutionMode executionMode;
+    private final int port;
+    private final boolean persistent;
+    private volatile ServerEngine serverEngine;
+
+    private final SessionRegistry sessions = new SessionRegistry();
+    private volatile DatabaseManager.HistoryPage lastHistoryPage;
+    private final AtomicBoolean historyLoading = new AtomicBoolean(false);
+    private final ExecutorService historyLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "history-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger archivedSessionCount = new AtomicInteger();
+
+    private final AtomicInteger connectedClients = new AtomicInteger();
+    private final Set<ClientConnection> activeClients = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService handshakeTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "handshake-timer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ImageStore imageStore = new ImageStore(Long.getLong("evoting.imageCacheBytes", 32L * 1024 * 1024));
+    private final ExecutorService imageServer = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "image-server");
+        t.setDaemon(true);
+        return t;
+    });
+    private final StatsBroadcaster statsBroadcaster = new StatsBroadcaster(StatsBroadcaster.defaultIntervalMs(),
+            activeClients);
+    private final VoteJournal voteJournal = VoteJournal.withDefaults();
+    private final WriteBehindService writeBehind = WriteBehindService.withDefaults();
+    private final List<VotingServerListener> listeners = new CopyOnWriteArrayList<>();
+
+    public VotingServer(String engineType, int port) {
+        this(engineType, port, true);
+    }
+
+    public VotingServer(String engineType, int port, boolean persistent) {
+        this.engineType = engineType;
+        this.executionMode = ExecutionMode.parse(engineType);
+        this.port = port;
+        this.persistent = persistent;
+    }
+
+    public static String normalizeEngine(String engine) {
+        engine = engine == null ? "nio" : engine.trim().toLowerCase();
+        if (!engine.equals("nio") && !engine.equals("thread") && !engine.equals("virtual")) {
+            System.err.println("⚠️ Engine tidak dikenal: " + engine + " (pilihan: nio, thread, virtual)");
+            engine = "nio";
+        }
+        return engine;
+    }
+
+    public void addListener(VotingServerListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(VotingServerListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void start() {
+        if (persistent) {
+            DatabaseManager.initDatabase();
+            loadHistoryFromDB();
+        } else {
+            System.out.println("ℹ️ Mode tanpa database: hasil sesi hanya disimpan di journal dan memori.");
+        }
+        recoverActiveSessions();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writeBehind.stop();
+            voteJournal.stop();
+        }, "shutdown-flush"));
+
+        statsBroadcaster.start();
+        if (engineType.equals("nio")) {
+            serverEngine = new NioServerEngine(port, NioServerEngine.defaultIoThreads(), new VotingClientHandler());
+        } else {
+            serverEngine = new BlockingServerEngine(port, executionMode, new VotingClientHandler());
+        }
+        new Thread(() -> {
+            try {
+                serverEngine.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "server-engine").start();
+    }
+
+    public void stop() {
+        ServerEngine engine = serverEngine;
+        if (engine != null)
+            engine.stop();
+        statsBroadcaster.stop();
+    }
+
+    public String getEngineType() {
+        return engineType;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    public List<VotingSession> getActiveSessions() {
+        return sessions.activeSessions();
+    }
+
+    public List<VotingSession> getHistorySessions() {
+        return sessions.historySessions();
+    }
+
+    public VotingSession findSession(long sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public VotingSession findActiveSession(String title) {
+        return sessions.findActive(title);
+    }
+
+    public int getConnectedClients() {
+        return connectedClients.get();
+    }
+
+    public Collection<ClientConnection> getClients() {
+        return Collections.unmodifiableSet(activeClients);
+    }
+
+    public int totalSessionCount() {
+        int unsaved = 0;
+        for (VotingSession vs : sessions.historySessions()) {
+            if (vs.isActive() || vs.getDbId() < 0)
+                unsaved++;
+        }
+        return archivedSessionCount.get() + unsaved;
+    }
+
+    public VotingSession openSession(String title, List<String> names, List<String> imagePaths) {
+        title = title == null ? "" : title.trim();
+        if (title.isEmpty())
+            throw new IllegalArgumentException("Judul sesi tidak boleh kosong!");
+        if (sessions.findActive(title) != null)
+            throw new IllegalArgumentException("Sesi aktif dengan judul '" + title + "' sudah ada!");
+
+        List<String> validNames = new ArrayList<>();
+        List<String> validPaths = new ArrayList<>();
+        Set<String> uniqueCheck = new HashSet<>();
+        File imgDir = new File("server_images");
+        if (!imgDir.exists())
+            imgDir.mkdir();
+
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            if (name.isEmpty())
+                continue;
+
+            if (!uniqueCheck.add(name.toLowerCase()))
+                throw new IllegalArgumentException("Nama kandidat tidak boleh kembar: " + name);
+            validNames.add(name);
+
+            String source = i < imagePaths.size() ? imagePaths.get(i) : null;
+            validPaths.add(source == null || source.isEmpty() ? "" : copyImage(new File(source), imgDir, name));
+        }
+
+        if (validNames.size() < 2)
+            throw new IllegalArgumentException("Minimal 2 kandidat!");
+
+        VotingSession session = new VotingSession(title, validNames.toArray(new String[0]),
+                validPaths.toArray(new String[0]));
+        if (!sessions.open(session))
+            throw new IllegalArgumentException("Sesi aktif dengan judul '" + title + "' sudah ada!");
+        voteJournal.sessionOpened(session);
+        if (persistent)
+            writeBehind.track(session);
+
+        for (VotingServerListener l : listeners) {
+            l.sessionOpened(session);
+        }
+        return session;
+    }
+
+    private static String copyImage(File source, File imgDir, String name) {
+        try {
+            String ext = source.getName().substring(source.getName().lastIndexOf("."));
+            String newFileName = System.currentTimeMillis() + "_" + name.replaceAll("\\s+", "") + ext;
+            File dest = new File(imgDir, newFileName);
+            Files.copy(source.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            String finalPath = dest.getAbsolutePath();
+            ThumbnailGenerator.thumbnailFor(finalPath, ThumbnailGenerator.LARGE);
+            return finalPath;
+        } catch (IOException | RuntimeException ex) {
+            ex.printStackTrace();
+            return "";
+        }
+    }
+
+    public void endSession(VotingSession session) {
+        if (!session.isActive())
+            return;
+        session.endSession();
+        sessions.close(session);
+        statsBroadcaster.forget(session);
+        if (!persistent) {
+            voteJournal.sessionSaved(session);
+            for (VotingServerListener l : listeners) {
+                l.sessionClosed(session, false);
+            }
+            return;
+        }
+        writeBehind.finish(session, saved -> {
+            if (saved) {
+                archivedSessionCount.incrementAndGet();
+                voteJournal.sessionSaved(session);
+            }
+            for (VotingServerListener l : listeners) {
+                l.sessionClosed(session, saved);
+            }
+        });
+    }
+
+    public boolean castVote(VotingSession session, String candidateName, boolean journaled) {
+        if (!journaled)
+            return session.addVote(candidateName);
+        try {
+            return voteJournal.vote(session, candidateName).join();
+        } catch (CompletionException e) {
+            return false;
+        }
+    }
+
+    public boolean renameCandidate(VotingSession session, String oldName, String newName) {
+        if (!structureChanged(session, voteJournal.renameCandidate(session, oldName, newName)))
+            return false;
+        candidatesChanged(session);
+        return true;
+    }
+
+    public void removeCandidate(VotingSession session, String name) {
+        if (structureChanged(session, voteJournal.removeCandidate(session, name)))
+            candidatesChanged(session);
+    }
+
+    public boolean addCandidate(VotingSession session, String name, String imagePath) {
+        if (!structureChanged(session, voteJournal.addCandidate(session, name, imagePath)))
+            return false;
+        candidatesChanged(session);
+        return true;
+    }
+
+    private static boolean structureChanged(VotingSession session, CompletableFuture<Boolean> durable) {
+        try {
+            return durable.join();
+        } catch (CompletionException e) {
+            System.err.println("❌ Perubahan kandidat '" + session.getTitle() + "' ditolak: journal vote gagal ("
+                    + e.getCause().getMessage() + ").");
+            return false;
+        }
+    }
+
+    private void candidatesChanged(VotingSession session) {
+        statsBroadcaster.markDirty(session);
+        for (VotingServerListener l : listeners) {
+            l.candidatesChanged(session);
+        }
+    }
+
+    public void loadMoreHistory() {
+        DatabaseManager.HistoryPage current = lastHistoryPage;
+        if (current == null || !current.hasMore || !historyLoading.compareAndSet(false, true))
+            return;
+
+        historyLoader.execute(() -> {
+            try {
+                appendHistoryPage(DatabaseManager.getHistoryPage(current.nextTimestamp, current.nextId,
+                        HISTORY_PAGE_SIZE));
+            } finally {
+                historyLoading.set(false);
+            }
+            for (VotingServerListener l : listeners) {
+                l.historyLoaded();
+            }
+        });
+    }
+
+    private void loadHistoryFromDB() {
+        sessions.clearArchived();
+        archivedSessionCount.set(DatabaseManager.countSessions());
+        appendHistoryPage(DatabaseManager.getHistoryPage(Long.MAX_VALUE, Long.MAX_VALUE, HISTORY_PAGE_SIZE));
+    }
+
+    private void recoverActiveSessions() {
+        List<VotingSession> recovered = new ArrayList<>();
+        try {
+            recovered.addAll(voteJournal.recover());
+            voteJournal.start();
+        } catch (IOException e) {
+            System.err.println("❌ Journal vote tidak bisa dibuka: " + e.getMessage()
+                    + ". Suara dan perubahan kandidat ditolak sampai journal diperbaiki"
+                    + " (atau jalankan dengan -Devoting.journal.enabled=false).");
+        }
+        if (!voteJournal.isEnabled())
+            System.err.println("⚠️ Journal vote dimatikan: suara yang di-ack tidak tahan crash server.");
+        int fromJournal = recovered.size();
+
+        List<VotingSession> live = persistent ? DatabaseManager.getLiveSessions() : Collections.emptyList();
+        for (VotingSession db : live) {
+            VotingSession match = null;
+            for (int i = 0; i < fromJournal; i++) {
+                VotingSession vs = recovered.get(i);
+                if (vs.getTitle().equals(db.getTitle()) && vs.getStartTime() == db.getStartTime()) {
+                    match = vs;
+                    break;
+                }
+            }
+            if (match != null) {
+                match.setDbId(db.getDbId());
+            } else {
+                recovered.add(db);
+                voteJournal.sessionOpened(db);
+            }
+        }
+
+        for (VotingSession vs : recovered) {
+            if (!sessions.open(vs)) {
+                System.err.println("⚠️ Ada lebih dari satu sesi aktif berjudul '" + vs.getTitle()
+                        + "', salinan berikutnya ditutup dan diarsipkan.");
+                sessions.prependArchived(Collections.singletonList(vs));
+                endSession(vs);
+                continue;
+            }
+            if (persistent)
+                writeBehind.track(vs);
+            for (String path : vs.getAllImages().values()) {
+                imageServer.execute(() -> ThumbnailGenerator.thumbnailFor(path, ThumbnailGenerator.LARGE));
+            }
+        }
+        if (!recovered.isEmpty())
+            System.out.println("♻️ " + recovered.size() + " sesi aktif dipulihkan (" + fromJournal
+                    + " dari journal, " + (recovered.size() - fromJournal) + " dari flush database terakhir).");
+        if (persistent)
+            writeBehind.start();
+    }
+
+    private void appendHistoryPage(DatabaseManager.HistoryPage page) {
+        List<VotingSession> older = new ArrayList<>(page.sessions);
+        Collections.reverse(older);
+        sessions.prependArchived(older);
+        lastHistoryPage = page;
+    }
+
+    private DatabaseManager.HistoryPage historyPageBefore(long beforeTimestamp, long beforeId, int limit,
+            boolean allowDb) {
+        DatabaseManager.HistoryPage loaded = lastHistoryPage;
+        boolean dbHasMore = loaded != null && loaded.hasMore;
+
+        List<VotingSession> matches = new ArrayList<>();
+        for (VotingSession vs : sessions.historySessions()) {
+            if (!isBefore(vs.getStartTime(), vs.getDbId(), beforeTimestamp, beforeId))
+                continue;
+            if (dbHasMore && isBefore(vs.getStartTime(), vs.getDbId(), loaded.nextTimestamp, loaded.nextId))
+                continue;
+            matches.add(vs);
+        }
+        matches.sort((a, b) -> a.getStartTime() != b.getStartTime() ? Long.compare(b.getStartTime(), a.getStartTime())
+                : Long.compare(b.getDbId(), a.getDbId()));
+
+        boolean hasMore;
+        if (matches.size() > limit) {
+            matches = new ArrayList<>(matches.subList(0, limit));
+            hasMore = true;
+        } else if (matches.size() < limit && allowDb && dbHasMore) {
+            long ts = beforeTimestamp;
+            long id = beforeId;
+            if (isBefore(loaded.nextTimestamp, loaded.nextId, ts, id)) {
+                ts = loaded.nextTimestamp;
+                id = loaded.nextId;
+            }
+            DatabaseManager.HistoryPage fromDb = DatabaseManager.getHistoryPage(ts, id, limit - matches.size());
+            matches.addAll(fromDb.sessions);
+            hasMore = fromDb.hasMore;
+        } else {
+            hasMore = dbHasMore;
+        }
+
+        if (matches.isEmpty())
+            return new DatabaseManager.HistoryPage(matches, false, beforeTimestamp, beforeId);
+        VotingSession last = matches.get(matches.size() - 1);
+        return new DatabaseManager.HistoryPage(matches, hasMore, last.getStartTime(), last.getDbId());
+    }
+
+    private static boolean isBefore(long timestamp, long id, long beforeTimestamp, long beforeId) {
+        return timestamp < beforeTimestamp || (timestamp == beforeTimestamp && id < beforeId);
+    }
+
+    private class VotingClientHandler implements ClientHandler {
+
+        @Override
+        public void onConnect(ClientConnection conn) {
+            int count = connectedClients.incrementAndGet();
+            for (VotingServerListener l : listeners) {
+                l.clientCountChanged(count);
+            }
+            ClientContext.of(conn);
+
+            handshakeTimer.schedule(() -> greet(conn), HELLO_GRACE_MS, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onMessage(ClientConnection conn, String msg) {
+            if (msg.startsWith(Protocol.HELLO)) {
+                handleHello(conn, msg);
+            } else if (msg.startsWith("VOTE|")) {
+                String[] parts = msg.split("\\|");
+                if (parts.length >= 4) {
+                    try {
+                        long requestId = Long.parseLong(parts[3].trim());
+                        handleVote(parts[1], parts[2]).thenAccept(rejection -> conn.send(Protocol.encodeText(
+                                rejection == null ? "ACK|" + requestId : "NACK|" + requestId + "|" + rejection)));
+                    } catch (NumberFormatException e) {
+                        handleVote(parts[1], parts[2]);
+                    }
+                } else if (parts.length >= 3) {
+                    handleVote(parts[1], parts[2]);
+                }
+            } else if (msg.equals("STATS_DELTA_ON")) {
+                ClientContext.of(conn).enableDeltaStats();
+            } else if (msg.startsWith("RESYNC|")) {
+                handleResync(conn, msg.substring("RESYNC|".length()));
+            }
+        }
+
+        @Override
+        public void onBinaryMessage(ClientConnection conn, byte[] body) {
+            Protocol.Reader r = new Protocol.Reader(body);
+            try {
+                switch (r.type()) {
+                    case Protocol.VOTE:
+                        r.skipType();
+                        handleVote(r.readString(), r.readString());
+                        break;
+                    case Protocol.VOTE_REQUEST: {
+                        r.skipType();
+                        long requestId = r.readVarint();
+                        handleVote(r.readString(), r.readString()).thenAccept(rejection -> conn.send(rejection == null
+                                ? new Protocol.Writer(Protocol.VOTE_ACK, 16).writeVarint(requestId).toFrame()
+                                : new Protocol.Writer(Protocol.VOTE_NACK, 64).writeVarint(requestId)
+                                        .writeString(rejection).toFrame()));
+                        break;
+                    }
+                    case Protocol.RESYNC:
+                        r.skipType();
+                        handleResync(conn, r.readString());
+                        break;
+                    case Protocol.GET_IMAGE:
+                        r.skipType();
+                        handleGetImage(conn, r.readString());
+                        break;
+                    case Protocol.HISTORY_MORE:
+                        r.skipType();
+                        handleHistoryMore(conn, r.readVarint(), r.readVarint(), (int) r.readVarint());
+                        break;
+                    default:
+                        break;
+                }
+            } catch (IOException e) {
+                conn.close();
+            }
+        }
+
+        @Override
+        public void onDisconnect(ClientConnection conn) {
+            activeClients.remove(conn);
+            int count = connectedClients.decrementAndGet();
+            for (VotingServerListener l : listeners) {
+                l.clientCountChanged(count);
+            }
+        }
+
+        private void handleHello(ClientConnection conn, String msg) {
+            int version = 1;
+            try {
+                version = Integer.parseInt(msg.substring(Protocol.HELLO.length()).trim());
+            } catch (NumberFormatException e) {
+            }
+
+            ClientContext ctx = ClientContext.of(conn);
+            if (version >= Protocol.MIN_BINARY_VERSION && ctx.markGreeted()) {
+                int negotiated = Math.min(version, Protocol.VERSION);
+                conn.setBinaryFraming(true);
+                ctx.useBinaryProtocol(negotiated);
+                conn.send(Protocol.encodeText(Protocol.HELLO_OK + negotiated));
+                sendGreeting(conn);
+            } else {
+                greet(conn);
+            }
+        }
+
+        private void greet(ClientConnection conn) {
+            if (ClientContext.of(conn).markGreeted()) {
+                sendGreeting(conn);
+            }
+        }
+
+        private void sendGreeting(ClientConnection conn) {
+            imageServer.execute(() -> {
+                if (!conn.isOpen())
+                    return;
+                try {
+                    ClientContext ctx = ClientContext.of(conn);
+                    conn.send(ctx.isBinary() ? buildBinaryGreeting(ctx.usesImageRefs(), ctx.sendsHistoryIds())
+                            : buildTextGreeting());
+                    activeClients.add(conn);
+                    for (VotingSession vs : sessions.activeSessions()) {
+                        statsBroadcaster.sendFullStats(conn, vs);
+                    }
+                } catch (IOException e) {
+                    conn.close();
+                }
+            });
+        }
+
+        private CompletableFuture<String> handleVote(String sessionTitle, String candidateName) {
+            VotingSession vs = findActiveSession(sessionTitle);
+            if (vs == null)
+                return CompletableFuture.completedFuture("Sesi tidak aktif");
+            return voteJournal.vote(vs, candidateName).handle((applied, error) -> {
+                if (error != null)
+                    return "Suara gagal dicatat di journal server";
+                if (!applied)
+                    return vs.isActive() ? "Kandidat tidak dikenal" : "Sesi sudah ditutup";
+                statsBroadcaster.markDirty(vs);
+                for (VotingServerListener l : listeners) {
+                    l.votesChanged(vs);
+                }
+                return null;
+            });
+        }
+
+        private void handleGetImage(ClientConnection conn, String hash) {
+            imageServer.execute(() -> {
+                byte[] bytes = imageStore.load(hash);
+                conn.send(new Protocol.Writer(Protocol.IMAGE, 80 + (bytes == null ? 0 : bytes.length))
+                        .writeString(hash).writeBytes(bytes == null ? new byte[0] : bytes).toFrame());
+            });
+        }
+
+        private void handleHistoryMore(ClientConnection conn, long beforeTimestamp, long beforeId, int limit) {
+            int pageSize = Math.max(1, Math.min(limit, HISTORY_PAGE_SIZE));
+            boolean withIds = ClientContext.of(conn).sendsHistoryIds();
+            historyLoader.execute(() -> {
+                DatabaseManager.HistoryPage page = historyPageBefore(beforeTimestamp, beforeId, pageSize, true);
+                Protocol.Writer w = new Protocol.Writer(Protocol.HISTORY_PAGE, 256 + page.sessions.size() * 64);
+                writeHistoryEntries(w, page.sessions, withIds);
+                conn.send(w.writeBoolean(page.hasMore).writeVarint(page.nextTimestamp).writeVarint(page.nextId)
+                        .toFrame());
+            });
+        }
+
+        private void handleResync(ClientConnection conn, String sessionTitle) {
+            VotingSession vs = findActiveSession(sessionTitle);
+            if (vs != null)
+                statsBroadcaster.sendFullStats(conn, vs);
+        }
+    }
+
+    private byte[] buildTextGreeting() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+
+        StringBuilder sbHistory = new StringBuilder("HISTORY_LIST|");
+        for (VotingSession vs : historyPageBefore(Long.MAX_VALUE, Long.MAX_VALUE, HANDSHAKE_HISTORY, false).sessions) {
+            sbHistory.append(vs.getSummary().historyEntryText());
+        }
+        out.writeUTF(sbHistory.toString());
+
+        sendActiveSessionsPayload(out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    private byte[] buildBinaryGreeting(boolean imageRefs, boolean historyIds) throws IOException {
+        DatabaseManager.HistoryPage history = historyPageBefore(Long.MAX_VALUE, Long.MAX_VALUE, HANDSHAKE_HISTORY,
+                false);
+        Protocol.Writer historyFrame = new Protocol.Writer(Protocol.HISTORY_LIST, 256 + history.sessions.size() * 64);
+        writeHistoryEntries(historyFrame, history.sessions, historyIds);
+        historyFrame.writeBoolean(history.hasMore).writeVarint(history.nextTimestamp).writeVarint(history.nextId);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        buffer.writeBytes(historyFrame.toFrame());
+
+        List<VotingSession> liveSessions = new ArrayList<>(sessions.activeSessions());
+        if (!liveSessions.isEmpty()) {
+            Protocol.Writer setup = new Protocol.Writer(Protocol.MULTI_SETUP, 1024).writeVarint(liveSessions.size());
+            for (VotingSession session : liveSessions) {
+                VotingSession.Snapshot snap = session.getSnapshot();
+                setup.writeString(session.getTitle()).writeVarint(snap.size());
+                for (int i = 0; i < snap.size(); i++) {
+                    setup.writeString(snap.getName(i));
+                    String hash = imageStore.hashOf(servedImage(snap.getImage(i)));
+                    if (imageRefs) {
+                        setup.writeString(hash);
+                    } else {
+                        byte[] bytes = hash.isEmpty() ? null : imageStore.load(hash);
+                        setup.writeBytes(bytes == null ? new byte[0] : bytes);
+                    }
+                }
+            }
+            buffer.writeBytes(setup.toFrame());
+        } else {
+            buffer.writeBytes(new Protocol.Writer(Protocol.WAIT).writeString("Tidak ada sesi voting aktif.").toFrame());
+        }
+        return buffer.toByteArray();
+    }
+
+    private String servedImage(String originalPath) {
+        File thumb = ThumbnailGenerator.existingThumbnail(originalPath, ThumbnailGenerator.LARGE);
+        if (thumb != null)
+            return thumb.getAbsolutePath();
+        if (originalPath != null && !originalPath.isEmpty())
+            imageServer.execute(() -> ThumbnailGenerator.thumbnailFor(originalPath, ThumbnailGenerator.LARGE));
+        return originalPath;
+    }
+
+    private void writeHistoryEntries(Protocol.Writer w, List<VotingSession> sessions, boolean withIds) {
+        w.writeVarint(sessions.size());
+        for (VotingSession vs : sessions) {
+            if (withIds)
+                w.writeVarint(vs.getDbId() + 1);
+            w.writeRaw(vs.getSummary().historyEntryBinary());
+        }
+    }
+
+    private void sendActiveSessionsPayload(DataOutputStream out) throws IOException {
+        List<VotingSession> liveSessions = new ArrayList<>(sessions.activeSessions());
+
+        if (!liveSessions.isEmpty()) {
+            out.writeUTF("MULTI_SETUP|" + liveSessions.size());
+
+            for (VotingSession session : liveSessions) {
+                out.writeUTF(session.getTitle());
+                VotingSession.Snapshot snap = session.getSnapshot();
+                out.writeInt(snap.size());
+
+                for (int i = 0; i < snap.size(); i++) {
+                    out.writeUTF(snap.getName(i));
+                    String hash = imageStore.hashOf(servedImage(snap.getImage(i)));
+                    byte[] bytes = hash.isEmpty() ? null : imageStore.load(hash);
+                    if (bytes != null) {
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    } else {
+                        out.writeInt(0);
+                    }
+                }
+            }
+        } else {
+            out.writeUTF("WAIT|Tidak ada sesi voting aktif.");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+public interface VotingServerListener {
+
+    default void clientCountChanged(int connectedClients) {
+    }
+
+    default void sessionOpened(VotingSession session) {
+    }
+
+    default void votesChanged(VotingSession session) {
+    }
+
+    default void candidatesChanged(VotingSession session) {
+    }
+
+    default void sessionClosed(VotingSession session, boolean saved) {
+    }
+
+    default void historyLoaded() {
+    }
+}
@@ -1,56 +1,71 @@
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class VotingSession {
 
+    private static final AtomicLong NEXT_SESSION_ID = new AtomicLong();
+
+    private final long sessionId = NEXT_SESSION_ID.incrementAndGet();
     private String sessionTitle;
     private long startTime;
+    private volatile long dbId = -1;
+
+    private volatile boolean isActive;
+    private volatile boolean isFromDatabase;
 
-    private boolean isActive;
-    private boolean isFromDatabase;
+    private volatile Snapshot snapshot;
 
-    private Map<String, Integer> voteData;
-    private Map<String, String> candidateImages;
+    private final LongAdder version = new LongAdder();
+    private volatile Summary summary;
 
     public VotingSession(String title, String[] candidates, String[] imagePaths) {
         this.sessionTitle = title;
-        this.voteData = new LinkedHashMap<>();
-        this.candidateImages = new LinkedHashMap<>();
 
         this.startTime = System.currentTimeMillis();
         this.isActive = true;
         this.isFromDatabase = false;
 
-        this.isFromDatabase = false;
-
+        Map<String, String> images = new LinkedHashMap<>();
         if (candidates != null) {
             for (int i = 0; i < candidates.length; i++) {
                 String name = candidates[i].trim();
                 String path = (imagePaths != null && i < imagePaths.length) ? imagePaths[i] : "";
 
-                if (!name.isEmpty()) {
-                    voteData.put(name, 0);
-                    candidateImages.put(name, path);
+                if (!name.isEmpty() && !images.containsKey(name)) {
+                    images.put(name, path);
                 }
             }
         }
+        this.snapshot = new Snapshot(0, new CandidateTable(images.keySet().toArray(new String[0]),
+                images.values().toArray(new String[0])));
     }
 
-    public synchronized void addVote(String candidateName) {
+    public boolean addVote(String candidateName) {
         if (!isActive) {
             System.out.println("⚠️ REJECTED: Sesi sudah ditutup.");
-            return;
+            return false;
         }
 
         if (isFromDatabase) {
             System.out.println("⚠️ REJECTED: Tidak bisa mengubah data arsip database!");
-            return;
+            return false;
         }
 
-        if (voteData.containsKey(candidateName)) {
-            voteData.put(candidateName, voteData.get(candidateName) + 1);
-            System.out.println("🗳️ VOTE LOG: " + candidateName + " +1");
+        while (true) {
+            CandidateTable table = snapshot.table;
+            int i = table.indexOf(candidateName);
+            if (i < 0)
+                return false;
+            if (table.add(i, 1)) {
+                version.increment();
+                return true;
+            }
+            Thread.onSpinWait();
         }
     }
 
@@ -58,26 +73,38 @@ public class VotingSession {
         if (!isActive || isFromDatabase)
             return;
 
-        if (voteData.containsKey(candidateName)) {
-            int currentVotes = voteData.get(candidateName);
-            try {
-                Thread.sleep((long) (Math.random() * 10));
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        if (snapshot.table.indexOf(candidateName) < 0)
+            return;
+
+        long currentVotes = countOf(candidateName);
+        try {
+            Thread.sleep((long) (Math.random() * 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        while (true) {
+            CandidateTable table = snapshot.table;
+            int i = table.indexOf(candidateName);
+            if (i < 0)
+                return;
+            long now = table.count(i);
+            if (now != CandidateTable.SEALED_READ && table.add(i, currentVotes + 1 - now)) {
+                version.increment();
+                return;
             }
-            voteData.put(candidateName, currentVotes + 1);
+            Thread.onSpinWait();
         }
     }
 
     public synchronized void resetVotes() {
-        for (String key : voteData.keySet()) {
-            voteData.put(key, 0);
-        }
+        snapshot.table.reset();
+        changed();
         System.out.println("🔄 VOTES RESET: " + sessionTitle);
     }
 
     public void endSession() {
         this.isActive = false;
+        changed();
         System.out.println("🏁 SESSION ENDED: " + sessionTitle);
     }
 
@@ -92,128 +119,398 @@ public class VotingSession {
     public void forceEndSession() {
         this.isActive = false;
         this.isFromDatabase = true;
+        changed();
     }
 
     public void overwriteStartTime(long timestamp) {
         this.startTime = timestamp;
     }
 
-    public void setVoteCountManual(String candidateName, int count) {
-        if (voteData.containsKey(candidateName)) {
-            voteData.put(candidateName, count);
+    public synchronized void setVoteCountManual(String candidateName, int count) {
+        CandidateTable table = snapshot.table;
+        int i = table.indexOf(candidateName);
+        if (i >= 0) {
+            table.set(i, count);
+            changed();
         }
     }
 
     public String getWinnerResult() {
-        if (voteData.isEmpty())
-            return "Tidak ada data";
-
-        String winnerName = "-";
-        int maxVotes = -1;
-        boolean isTie = false;
-
-        for (Map.Entry<String, Integer> entry : voteData.entrySet()) {
-            int votes = entry.getValue();
-
-            if (votes > maxVotes) {
-                maxVotes = votes;
-                winnerName = entry.getKey();
-                isTie = false;
-            } else if (votes == maxVotes && maxVotes > 0) {
-                isTie = true;
-            }
-        }
-
-        if (maxVotes == 0)
-            return "Belum ada suara";
-        if (isTie)
-            return "Seri / Draw (" + maxVotes + " Suara)";
-
-        return winnerName + " (" + maxVotes + " Suara)";
+        return getSummary().getWinnerResult();
     }
 
     public String getVoteSummary() {
-        StringBuilder sb = new StringBuilder();
-        int count = 0;
-        for (Map.Entry<String, Integer> entry : voteData.entrySet()) {
-            if (count > 0) {
-                sb.append(",");
-            }
-            sb.append(entry.getKey()).append(":").append(entry.getValue());
-            count++;
+        return getSummary().getVoteSummary();
+    }
+
+    public Summary getSummary() {
+        Summary s = summary;
+        if (s != null && (isFromDatabase || s.version == version.sum()))
+            return s;
+
+        long v = version.sum();
+        Snapshot snap = snapshot;
+        long[] counts = snap.table.counts();
+        while (counts == null) {
+            Thread.onSpinWait();
+            snap = snapshot;
+            counts = snap.table.counts();
         }
-        return sb.toString();
+        s = new Summary(v, sessionTitle, isActive, new Tally(snap, counts));
+        summary = s;
+        return s;
+    }
+
+    private void changed() {
+        version.increment();
+        summary = null;
     }
 
     public String getTitle() {
         return sessionTitle;
     }
 
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
     public Set<String> getCandidates() {
-        return voteData.keySet();
+        return snapshot.getNames();
     }
 
     public String getCandidateImage(String name) {
-        return candidateImages.getOrDefault(name, "");
+        CandidateTable table = snapshot.table;
+        int i = table.indexOf(name);
+        return i < 0 ? "" : table.image(i);
     }
 
     public int getVoteCount(String candidateName) {
-        return voteData.getOrDefault(candidateName, 0);
+        return (int) countOf(candidateName);
     }
 
-    public int getTotalVotes() {
-        int total = 0;
-        for (int count : voteData.values()) {
-            total += count;
+    private long countOf(String candidateName) {
+        while (true) {
+            CandidateTable table = snapshot.table;
+            int i = table.indexOf(candidateName);
+            if (i < 0)
+                return 0;
+            long count = table.count(i);
+            if (count != CandidateTable.SEALED_READ)
+                return count;
+            Thread.onSpinWait();
         }
-        return total;
+    }
+
+    public int getTotalVotes() {
+        return (int) getSummary().getTotal();
     }
 
     public long getStartTime() {
         return startTime;
     }
 
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public long getDbId() {
+        return dbId;
+    }
+
+    public void setDbId(long dbId) {
+        this.dbId = dbId;
+    }
+
+    public Tally getTally() {
+        return getSummary().getTally();
+    }
+
     public Map<String, Integer> getAllData() {
-        return new LinkedHashMap<>(voteData);
+        return getSummary().asMap();
     }
 
     public Map<String, String> getAllImages() {
-        return new LinkedHashMap<>(candidateImages);
+        return snapshot.getImages();
     }
 
     public synchronized boolean updateCandidateName(String oldName, String newName) {
-        if (!voteData.containsKey(oldName) || voteData.containsKey(newName)) {
+        CandidateTable current = snapshot.table;
+        int pos = current.indexOf(oldName);
+        if (pos < 0 || current.indexOf(newName) >= 0) {
             return false;
         }
 
-        int votes = voteData.remove(oldName);
-        String img = candidateImages.remove(oldName);
-
-        voteData.put(newName, votes);
-        candidateImages.put(newName, img);
-
+        String[] names = current.names.clone();
+        String[] images = new String[names.length];
+        int[] movedTo = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            images[i] = current.image(i);
+            movedTo[i] = i;
+        }
+        names[pos] = newName;
+        publish(names, images, movedTo);
         return true;
     }
 
     public synchronized void updateCandidateImage(String name, String newPath) {
-        if (candidateImages.containsKey(name)) {
-            candidateImages.put(name, newPath);
+        Snapshot current = snapshot;
+        int pos = current.table.indexOf(name);
+        if (pos >= 0) {
+            snapshot = new Snapshot(current.version + 1, current.table.withImage(pos, newPath));
         }
     }
 
-    public synchronized void removeCandidate(String name) {
-        if (voteData.containsKey(name)) {
-            voteData.remove(name);
-            candidateImages.remove(name);
+    public synchronized boolean removeCandidate(String name) {
+        CandidateTable current = snapshot.table;
+        int pos = current.indexOf(name);
+        if (pos < 0)
+            return false;
+
+        int n = current.size();
+        String[] names = new String[n - 1];
+        String[] images = new String[n - 1];
+        int[] movedTo = new int[n];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (i == pos) {
+                movedTo[i] = -1;
+                continue;
+            }
+            names[j] = current.name(i);
+            images[j] = current.image(i);
+            movedTo[i] = j++;
         }
+        publish(names, images, movedTo);
+        return true;
     }
 
     public synchronized boolean addCandidate(String name, String imagePath) {
-        if (voteData.containsKey(name))
+        CandidateTable current = snapshot.table;
+        if (current.indexOf(name) >= 0)
             return false;
 
-        voteData.put(name, 0);
-        candidateImages.put(name, imagePath);
+        int n = current.size();
+        String[] names = Arrays.copyOf(current.names, n + 1);
+        String[] images = new String[n + 1];
+        int[] movedTo = new int[n];
+        for (int i = 0; i < n; i++) {
+            images[i] = current.image(i);
+            movedTo[i] = i;
+        }
+        names[n] = name;
+        images[n] = imagePath;
+        publish(names, images, movedTo);
         return true;
     }
+
+    private void publish(String[] names, String[] images, int[] movedTo) {
+        Snapshot current = snapshot;
+        Snapshot next = new Snapshot(current.version + 1, new CandidateTable(names, images));
+        current.table.drainInto(next.table, movedTo);
+        snapshot = next;
+        changed();
+    }
+
+    public static final class Tally {
+        private final Snapshot snapshot;
+        private final String[] names;
+        private final long[] counts;
+
+        private Tally(Snapshot snapshot, long[] counts) {
+            this.snapshot = snapshot;
+            this.names = snapshot.table.names;
+            this.counts = counts;
+        }
+
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public int size() {
+            return counts.length;
+        }
+
+        public String getName(int i) {
+            return names[i];
+        }
+
+        public long getCount(int i) {
+            return counts[i];
+        }
+
+        public long getTotal() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        public boolean hasSameCandidates(Tally other) {
+            return other != null && other.names == names;
+        }
+    }
+
+    public static final class Summary {
+        private final long version;
+        private final String title;
+        private final boolean active;
+        private final Tally tally;
+        private final String winner;
+        private volatile String voteSummary;
+        private volatile String historyText;
+        private volatile byte[] historyEntry;
+        private volatile byte[] countsBinary;
+        private volatile Map<String, Integer> asMap;
+
+        private Summary(long version, String title, boolean active, Tally tally) {
+            this.version = version;
+            this.title = title;
+            this.active = active;
+            this.tally = tally;
+            this.winner = winnerOf(tally);
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public Tally getTally() {
+            return tally;
+        }
+
+        public long getTotal() {
+            return tally.getTotal();
+        }
+
+        public String getWinnerResult() {
+            return winner;
+        }
+
+        public String getVoteSummary() {
+            String s = voteSummary;
+            if (s == null) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < tally.size(); i++) {
+                    if (i > 0) {
+                        sb.append(",");
+                    }
+                    sb.append(tally.getName(i)).append(":").append(tally.getCount(i));
+                }
+                s = sb.toString();
+                voteSummary = s;
+            }
+            return s;
+        }
+
+        public Map<String, Integer> asMap() {
+            Map<String, Integer> m = asMap;
+            if (m == null) {
+                Map<String, Integer> data = new LinkedHashMap<>();
+                for (int i = 0; i < tally.size(); i++) {
+                    data.put(tally.getName(i), (int) tally.getCount(i));
+                }
+                m = Collections.unmodifiableMap(data);
+                asMap = m;
+            }
+            return m;
+        }
+
+        public String historyEntryText() {
+            String s = historyText;
+            if (s == null) {
+                s = title + ";" + active + ";" + winner + ";" + getVoteSummary() + "#";
+                historyText = s;
+            }
+            return s;
+        }
+
+        public byte[] historyEntryBinary() {
+            byte[] b = historyEntry;
+            if (b == null) {
+                b = Protocol.Writer.fragment(64 + tally.size() * 16).writeString(title).writeBoolean(active)
+                        .writeString(winner).writeRaw(countsBinary()).toBytes();
+                historyEntry = b;
+            }
+            return b;
+        }
+
+        public byte[] countsBinary() {
+            byte[] b = countsBinary;
+            if (b == null) {
+                Protocol.Writer w = Protocol.Writer.fragment(8 + tally.size() * 16).writeVarint(tally.size());
+                for (int i = 0; i < tally.size(); i++) {
+                    w.writeString(tally.getName(i)).writeVarint(tally.getCount(i));
+                }
+                b = w.toBytes();
+                countsBinary = b;
+            }
+            return b;
+        }
+
+        private static String winnerOf(Tally tally) {
+            if (tally.size() == 0)
+                return "Tidak ada data";
+
+            String winnerName = "-";
+            long maxVotes = -1;
+            boolean isTie = false;
+
+            for (int i = 0; i < tally.size(); i++) {
+                long votes = tally.getCount(i);
+
+                if (votes > maxVotes) {
+                    maxVotes = votes;
+                    winnerName = tally.getName(i);
+                    isTie = false;
+                } else if (votes == maxVotes && maxVotes > 0) {
+                    isTie = true;
+                }
+            }
+
+            if (maxVotes == 0)
+                return "Belum ada suara";
+            if (isTie)
+                return "Seri / Draw (" + maxVotes + " Suara)";
+
+            return winnerName + " (" + maxVotes + " Suara)";
+        }
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final CandidateTable table;
+
+        private Snapshot(long version, CandidateTable table) {
+            this.version = version;
+            this.table = table;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return table.size();
+        }
+
+        public String getName(int i) {
+            return table.name(i);
+        }
+
+        public String getImage(int i) {
+            return table.image(i);
+        }
+
+        public int indexOf(String name) {
+            return table.indexOf(name);
+        }
+
+        public Set<String> getNames() {
+            return table.nameSet();
+        }
+
+        public Map<String, String> getImages() {
+            return table.imageMap();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class WriteBehindService {
+
+    private final long intervalMs;
+    private final int batchSize;
+    private final Map<VotingSession, FlushState> tracked = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "write-behind");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public WriteBehindService(long intervalMs, int batchSize) {
+        this.intervalMs = Math.max(100, intervalMs);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public static WriteBehindService withDefaults() {
+        return new WriteBehindService(Long.getLong("evoting.writeBehind.intervalMs", 2000L),
+                Integer.getInteger("evoting.writeBehind.batchSize", 500));
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::flushAll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.execute(this::flushAll);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void track(VotingSession session) {
+        tracked.putIfAbsent(session, new FlushState());
+    }
+
+    public void finish(VotingSession session, Consumer<Boolean> onSaved) {
+        executor.execute(() -> {
+            tracked.remove(session);
+            onSaved.accept(DatabaseManager.saveSession(session));
+        });
+    }
+
+    private void flushAll() {
+        try {
+            for (Map.Entry<VotingSession, FlushState> entry : tracked.entrySet()) {
+                flush(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Write-behind gagal: " + e.getMessage());
+        }
+    }
+
+    private void flush(VotingSession session, FlushState state) {
+        VotingSession.Tally tally = session.getTally();
+        VotingSession.Tally previous = state.lastFlushed;
+        if (previous != null && session.getDbId() >= 0 && tally.hasSameCandidates(previous)
+                && !hasChanges(tally, previous))
+            return;
+
+        if (DatabaseManager.flushLiveTally(session, tally, previous, batchSize)) {
+            state.lastFlushed = tally;
+        }
+    }
+
+    private static boolean hasChanges(VotingSession.Tally tally, VotingSession.Tally previous) {
+        for (int i = 0; i < tally.size(); i++) {
+            if (tally.getCount(i) != previous.getCount(i))
+                return true;
+        }
+        return false;
+    }
+
+    private static final class FlushState {
+        VotingSession.Tally lastFlushed;
+    }
+}
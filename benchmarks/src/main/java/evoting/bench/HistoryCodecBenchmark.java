@@ -0,0 +1,157 @@
+package evoting.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Encodes and decodes the HISTORY_LIST greeting in both wire formats. The text decoder mirrors
+ * {@code VoterClient.parseHistoryList}, which is private to the Swing client.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryCodecBenchmark {
+
+    private static final byte HISTORY_LIST = Repo.constant("Protocol", "HISTORY_LIST");
+
+    private static final MethodHandle NEW_SESSION = Repo.constructor("VotingSession", String.class, String[].class,
+            String[].class);
+    private static final MethodHandle SET_COUNT = Repo.method("VotingSession", "setVoteCountManual", void.class,
+            String.class, int.class);
+    private static final MethodHandle END_SESSION = Repo.method("VotingSession", "endSession", void.class);
+    private static final MethodHandle GET_SUMMARY = Repo.method("VotingSession", "getSummary",
+            Repo.type("VotingSession$Summary"));
+    private static final MethodHandle ENTRY_TEXT = Repo.method("VotingSession$Summary", "historyEntryText",
+            String.class);
+    private static final MethodHandle ENTRY_BINARY = Repo.method("VotingSession$Summary", "historyEntryBinary",
+            byte[].class);
+
+    private static final MethodHandle NEW_WRITER = Repo.constructor("Protocol$Writer", byte.class, int.class);
+    private static final MethodHandle WRITE_VARINT = Repo.method("Protocol$Writer", "writeVarint",
+            Repo.type("Protocol$Writer"), long.class);
+    private static final MethodHandle WRITE_RAW = Repo.method("Protocol$Writer", "writeRaw",
+            Repo.type("Protocol$Writer"), byte[].class);
+    private static final MethodHandle TO_FRAME = Repo.method("Protocol$Writer", "toFrame", byte[].class);
+
+    private static final MethodHandle NEW_READER = Repo.constructor("Protocol$Reader", byte[].class);
+    private static final MethodHandle SKIP_TYPE = Repo.method("Protocol$Reader", "skipType",
+            Repo.type("Protocol$Reader"));
+    private static final MethodHandle READ_COUNT = Repo.method("Protocol$Reader", "readCount", int.class);
+    private static final MethodHandle READ_STRING = Repo.method("Protocol$Reader", "readString", String.class);
+    private static final MethodHandle READ_BOOLEAN = Repo.method("Protocol$Reader", "readBoolean", boolean.class);
+    private static final MethodHandle READ_VARINT = Repo.method("Protocol$Reader", "readVarint", long.class);
+
+    @Param({ "20", "200" })
+    public int sessions;
+
+    @Param({ "5" })
+    public int candidates;
+
+    private Object[] summaries;
+    private String textMessage;
+    private byte[] binaryBody;
+
+    @Setup
+    public void setup() throws Throwable {
+        String[] names = Repo.names(candidates);
+        summaries = new Object[sessions];
+        StringBuilder text = new StringBuilder("HISTORY_LIST|");
+        for (int s = 0; s < sessions; s++) {
+            Object session = (Object) NEW_SESSION.invokeExact("Pemilihan " + (s + 1), names, new String[0]);
+            for (int c = 0; c < candidates; c++) {
+                SET_COUNT.invokeExact(session, names[c], (s * 31 + c * 17) % 1000);
+            }
+            END_SESSION.invokeExact(session);
+            summaries[s] = (Object) GET_SUMMARY.invokeExact(session);
+            text.append((String) ENTRY_TEXT.invokeExact(summaries[s]));
+        }
+        textMessage = text.toString();
+        byte[] frame = encodeBinary();
+        binaryBody = Arrays.copyOfRange(frame, frame.length - bodyLength(frame), frame.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws Throwable {
+        Object w = (Object) NEW_WRITER.invokeExact(HISTORY_LIST, 256 + summaries.length * 64);
+        w = (Object) WRITE_VARINT.invokeExact(w, (long) summaries.length);
+        for (Object summary : summaries) {
+            w = (Object) WRITE_RAW.invokeExact(w, (byte[]) ENTRY_BINARY.invokeExact(summary));
+        }
+        return (byte[]) TO_FRAME.invokeExact(w);
+    }
+
+    @Benchmark
+    public String encodeText() throws Throwable {
+        StringBuilder sb = new StringBuilder("HISTORY_LIST|");
+        for (Object summary : summaries) {
+            sb.append((String) ENTRY_TEXT.invokeExact(summary));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public List<String[]> parseText() {
+        List<String[]> entries = new ArrayList<>();
+        String rawData = textMessage.substring(13);
+        if (rawData.isEmpty())
+            return entries;
+
+        for (String s : rawData.split("#")) {
+            String[] props = s.split(";");
+            if (props.length >= 3)
+                entries.add(props);
+        }
+        return entries;
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole bh) throws Throwable {
+        Object r = (Object) NEW_READER.invokeExact(binaryBody);
+        r = (Object) SKIP_TYPE.invokeExact(r);
+        int count = (int) READ_COUNT.invokeExact(r);
+        for (int i = 0; i < count; i++) {
+            bh.consume((String) READ_STRING.invokeExact(r));
+            bh.consume((boolean) READ_BOOLEAN.invokeExact(r));
+            bh.consume((String) READ_STRING.invokeExact(r));
+            int candidateCount = (int) READ_COUNT.invokeExact(r);
+            String[] names = new String[candidateCount];
+            long[] counts = new long[candidateCount];
+            for (int c = 0; c < candidateCount; c++) {
+                names[c] = (String) READ_STRING.invokeExact(r);
+                counts[c] = (long) READ_VARINT.invokeExact(r);
+            }
+            bh.consume(names);
+            bh.consume(counts);
+        }
+    }
+
+    private static int bodyLength(byte[] frame) {
+        int length = 0;
+        int shift = 0;
+        for (int i = 0; ; i++) {
+            int b = frame[i] & 0xFF;
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return length;
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package evoting.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * The application classes live in the unnamed package, which named packages cannot import. Benchmarks bind to
+ * them through method handles whose application types are erased to {@code Object}; kept in {@code static final}
+ * fields they are constants to the JIT, so the call cost is the same as a direct call after warm-up.
+ */
+final class Repo {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private Repo() {
+    }
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name, false, Repo.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Kelas aplikasi tidak ditemukan: " + name, e);
+        }
+    }
+
+    static MethodHandle constructor(String owner, Class<?>... params) {
+        try {
+            MethodHandle mh = LOOKUP.findConstructor(type(owner), MethodType.methodType(void.class, params));
+            return opaque(mh);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MethodHandle method(String owner, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            MethodHandle mh = LOOKUP.findVirtual(type(owner), name, MethodType.methodType(returnType, params));
+            return opaque(mh);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MethodHandle staticMethod(String owner, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            MethodHandle mh = LOOKUP.findStatic(type(owner), name, MethodType.methodType(returnType, params));
+            return opaque(mh);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle opaque(MethodHandle mh) {
+        MethodType type = mh.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isApplicationType(type.parameterType(i)))
+                type = type.changeParameterType(i, Object.class);
+        }
+        if (isApplicationType(type.returnType()))
+            type = type.changeReturnType(Object.class);
+        return mh.asType(type);
+    }
+
+    private static boolean isApplicationType(Class<?> c) {
+        return !c.isPrimitive() && !c.isArray() && c.getPackageName().isEmpty();
+    }
+
+    static byte constant(String owner, String field) {
+        try {
+            return type(owner).getField(field).getByte(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String[] names(int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = "Kandidat " + (i + 1);
+        }
+        return names;
+    }
+}
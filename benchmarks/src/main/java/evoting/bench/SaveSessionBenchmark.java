@@ -0,0 +1,69 @@
+package evoting.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Archives a finished session through {@code DatabaseManager.saveSession} against an in-memory H2 database in
+ * MySQL mode, so the batching and transaction path is measured without a MySQL server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Devoting.db.url=jdbc:h2:mem:evoting_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "-Devoting.db.user=sa" })
+public class SaveSessionBenchmark {
+
+    private static final MethodHandle INIT_DATABASE = Repo.staticMethod("DatabaseManager", "initDatabase",
+            void.class);
+    private static final MethodHandle SAVE_SESSION = Repo.staticMethod("DatabaseManager", "saveSession",
+            boolean.class, Repo.type("VotingSession"));
+
+    private static final MethodHandle NEW_SESSION = Repo.constructor("VotingSession", String.class, String[].class,
+            String[].class);
+    private static final MethodHandle SET_COUNT = Repo.method("VotingSession", "setVoteCountManual", void.class,
+            String.class, int.class);
+    private static final MethodHandle END_SESSION = Repo.method("VotingSession", "endSession", void.class);
+
+    @Param({ "5", "50" })
+    public int candidates;
+
+    private String[] names;
+    private Object session;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void initDatabase() throws Throwable {
+        INIT_DATABASE.invokeExact();
+        names = Repo.names(candidates);
+    }
+
+    @Setup(Level.Invocation)
+    public void finishSession() throws Throwable {
+        session = (Object) NEW_SESSION.invokeExact("Benchmark " + sequence++, names, new String[0]);
+        for (int c = 0; c < names.length; c++) {
+            SET_COUNT.invokeExact(session, names[c], c * 7 + 1);
+        }
+        END_SESSION.invokeExact(session);
+    }
+
+    @Benchmark
+    public boolean saveSession() throws Throwable {
+        return (boolean) SAVE_SESSION.invokeExact(session);
+    }
+}
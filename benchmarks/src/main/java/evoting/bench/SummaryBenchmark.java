@@ -0,0 +1,76 @@
+package evoting.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryBenchmark {
+
+    private static final MethodHandle NEW_SESSION = Repo.constructor("VotingSession", String.class, String[].class,
+            String[].class);
+    private static final MethodHandle ADD_VOTE = Repo.method("VotingSession", "addVote", boolean.class,
+            String.class);
+    private static final MethodHandle VOTE_SUMMARY = Repo.method("VotingSession", "getVoteSummary", String.class);
+    private static final MethodHandle WINNER = Repo.method("VotingSession", "getWinnerResult", String.class);
+
+    @Param({ "2", "10", "100", "1000" })
+    public int candidates;
+
+    private Object session;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setup() throws Throwable {
+        names = Repo.names(candidates);
+        session = (Object) NEW_SESSION.invokeExact("Benchmark", names, new String[0]);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < candidates * 50; i++) {
+            boolean accepted = (boolean) ADD_VOTE.invokeExact(session, names[random.nextInt(names.length)]);
+        }
+    }
+
+    @Benchmark
+    public String getVoteSummary_afterVote() throws Throwable {
+        vote();
+        return (String) VOTE_SUMMARY.invokeExact(session);
+    }
+
+    @Benchmark
+    public String getVoteSummary_unchanged() throws Throwable {
+        return (String) VOTE_SUMMARY.invokeExact(session);
+    }
+
+    @Benchmark
+    public String getWinnerResult_afterVote() throws Throwable {
+        vote();
+        return (String) WINNER.invokeExact(session);
+    }
+
+    @Benchmark
+    public String getWinnerResult_unchanged() throws Throwable {
+        return (String) WINNER.invokeExact(session);
+    }
+
+    private void vote() throws Throwable {
+        next = next + 1 == names.length ? 0 : next + 1;
+        boolean accepted = (boolean) ADD_VOTE.invokeExact(session, names[next]);
+    }
+}
@@ -0,0 +1,72 @@
+package evoting.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VotePathBenchmark {
+
+    private static final MethodHandle NEW_SESSION = Repo.constructor("VotingSession", String.class, String[].class,
+            String[].class);
+    private static final MethodHandle ADD_VOTE = Repo.method("VotingSession", "addVote", boolean.class,
+            String.class);
+
+    @Param({ "4", "64" })
+    public int candidates;
+
+    private Object session;
+    private String[] names;
+
+    @Setup
+    public void setup() throws Throwable {
+        names = Repo.names(candidates);
+        session = (Object) NEW_SESSION.invokeExact("Benchmark", names, new String[0]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean addVote_1thread() throws Throwable {
+        return vote();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean addVote_4threads() throws Throwable {
+        return vote();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean addVote_16threads() throws Throwable {
+        return vote();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean addVote_64threads() throws Throwable {
+        return vote();
+    }
+
+    private boolean vote() throws Throwable {
+        String name = names[ThreadLocalRandom.current().nextInt(names.length)];
+        return (boolean) ADD_VOTE.invokeExact(session, name);
+    }
+}